@@ -200,6 +200,36 @@ public class Option {
             .def("0")
             .help("Manually set the number of compiler threads"),
 
+        option("TruffleCompilerThreadsMax")
+            .type("Integer")
+            .category("EXPERT")
+            .def("0")
+            .help("Maximum number of compiler threads the pool may grow to when the compilation queue backs up (0: keep the initial number of compiler threads)"),
+
+        option("TruffleCompilerThreadsCPUBudget")
+            .type("Integer")
+            .category("EXPERT")
+            .def("50")
+            .help("Percentage of the available processors that TruffleCompilerThreadsMax is capped to"),
+
+        option("TruffleCompilationQueueHotnessOrder")
+            .type("Boolean")
+            .category("EXPERT")
+            .def("false")
+            .help("Among queued compilations of the same tier, compile the call targets whose call and loop counts currently grow fastest first"),
+
+        option("TruffleGraphSizeInlining")
+            .type("Boolean")
+            .category("EXPERT")
+            .def("false")
+            .help("Measure inlining candidates by the graph size their previous compilations produced after partial evaluation instead of by their AST node count"),
+
+        option("TruffleCompilationProfileCache")
+            .type("String")
+            .category("EXPERT")
+            .def("null")
+            .help("File in which the call targets compiled in this run are remembered, so that they are compiled after fewer calls in later runs"),
+
         option("TruffleReturnTypeSpeculation")
             .type("Boolean")
             .category("INTERNAL")
@@ -28,6 +28,14 @@ import static org.graalvm.compiler.truffle.runtime.TruffleRuntimeOptions.getOpti
 import static org.graalvm.compiler.truffle.runtime.TruffleRuntimeOptions.overrideOptions;
 
 import java.lang.ref.WeakReference;
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.PriorityBlockingQueue;
@@ -36,6 +44,8 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.graalvm.compiler.truffle.common.TruffleCompilationTask;
 import org.graalvm.compiler.truffle.runtime.TruffleRuntimeOptions.TruffleRuntimeOptionsOverrideScope;
@@ -47,13 +57,43 @@ import org.graalvm.options.OptionValues;
  * The current queuing policy is to first schedule all the first tier compilation requests, and only
  * handle second tier compilation requests when there are no first tier compilations left. Between
  * the compilation requests of the same optimization tier, the queuing policy is FIFO
- * (first-in-first-out).
+ * (first-in-first-out). With {@code TruffleCompilationQueueHotnessOrder} enabled, the call target
+ * whose call and loop count currently grows fastest is compiled first instead, see
+ * {@link HotnessOrderedQueue}.
  *
  * Note that all the compilation requests are second tier when the multi-tier option is turned off.
+ *
+ * The number of compiler threads starts at {@code TruffleCompilerThreads}. If
+ * {@code TruffleCompilerThreadsMax} is set, the pool grows up to that maximum, capped by
+ * {@code TruffleCompilerThreadsCPUBudget}, while the queue stays long or requests keep waiting long,
+ * and it shrinks back when the queue stays empty.
  */
 public class BackgroundCompileQueue {
+    /** Queued requests per compiler thread above which another thread is added. */
+    private static final int QUEUE_LENGTH_PER_THREAD = 4;
+    /** The shortest time over which the hotness of a queued request is measured. */
+    private static final long MIN_HOTNESS_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    /** The time after which a call and loop count rate has only half its weight in the hotness. */
+    private static final long HOTNESS_HALF_LIFE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    /** How often the hotness of all queued requests is updated and the queue is reordered. */
+    private static final long HOTNESS_UPDATE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    /** Queue wait time after which a request is compiled in FIFO order, however cold it is. */
+    private static final long MAX_HOTNESS_ORDERED_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1);
+    /** Queue wait time above which another compiler thread is added. */
+    private static final long GROW_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    /** How long the queue must stay under pressure before another compiler thread is added. */
+    private static final long GROW_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    /** How long the queue must stay empty before a compiler thread is given back. */
+    private static final long SHRINK_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(5);
+
     private final AtomicLong idCounter;
     private final ExecutorService compilationExecutorService;
+    private final int minThreads;
+    private final int maxThreads;
+    /** Start of the current period of queue pressure, or -1. Guarded by the executor. */
+    private long pressureSinceNanos = -1;
+    /** Start of the current period of an empty queue, or -1. Guarded by the executor. */
+    private long idleSinceNanos = -1;
 
     public class Request implements Runnable, Comparable<Request> {
         private final long id;
@@ -62,6 +102,15 @@ public class BackgroundCompileQueue {
         private final WeakReference<OptimizedCallTarget> weakCallTarget;
         private final TruffleCompilationTask task;
         private final boolean isFirstTier;
+        private final long submissionNanos;
+
+        /*
+         * The hotness state is only accessed by the HotnessOrderedQueue, while it holds its lock.
+         */
+        private long hotnessSampleNanos;
+        private int hotnessSampleCallAndLoopCount;
+        private double hotness;
+        private boolean starved;
 
         public Request(GraalTruffleRuntime runtime, OptionValues optionOverrides, OptimizedCallTarget callTarget, TruffleCompilationTask task) {
             this.id = idCounter.getAndIncrement();
@@ -70,6 +119,31 @@ public class BackgroundCompileQueue {
             this.weakCallTarget = new WeakReference<>(callTarget);
             this.task = task;
             this.isFirstTier = !task.isLastTier();
+            this.submissionNanos = System.nanoTime();
+            this.hotnessSampleNanos = submissionNanos;
+            this.hotnessSampleCallAndLoopCount = callTarget.getCompilationProfile().getCallAndLoopCount();
+        }
+
+        /**
+         * Updates the hotness, i.e., the exponentially decayed rate at which the call and loop
+         * count of the call target grows. The rate since the last update weighs more the longer
+         * ago that update was, so targets that keep getting hotter while they wait move up and
+         * targets that went cold decay towards zero. A request that waited longer than
+         * {@link #MAX_HOTNESS_ORDERED_WAIT_NANOS} is marked as starved.
+         */
+        void updateHotness(long nowNanos) {
+            starved = nowNanos - submissionNanos > MAX_HOTNESS_ORDERED_WAIT_NANOS;
+            long elapsedNanos = nowNanos - hotnessSampleNanos;
+            if (elapsedNanos < MIN_HOTNESS_WINDOW_NANOS) {
+                return;
+            }
+            OptimizedCallTarget callTarget = weakCallTarget.get();
+            int callAndLoopCount = callTarget != null ? callTarget.getCompilationProfile().getCallAndLoopCount() : hotnessSampleCallAndLoopCount;
+            double currentRate = (double) Math.max(0, callAndLoopCount - hotnessSampleCallAndLoopCount) / elapsedNanos;
+            double decay = Math.pow(0.5, (double) elapsedNanos / HOTNESS_HALF_LIFE_NANOS);
+            hotness = hotness * decay + currentRate * (1 - decay);
+            hotnessSampleNanos = nowNanos;
+            hotnessSampleCallAndLoopCount = callAndLoopCount;
         }
 
         @SuppressWarnings("try")
@@ -77,6 +151,10 @@ public class BackgroundCompileQueue {
         public void run() {
             OptimizedCallTarget callTarget = weakCallTarget.get();
             if (callTarget != null) {
+                long waitNanos = System.nanoTime() - submissionNanos;
+                int queueLength = getQueueSize();
+                adjustCompilerThreads(queueLength, waitNanos);
+                runtime.getListener().onCompilationQueueSample(callTarget, waitNanos, queueLength, getCompilerThreads());
                 try (TruffleRuntimeOptionsOverrideScope scope = optionOverrides != null ? overrideOptions(optionOverrides) : null) {
                     if (!task.isCancelled()) {
                         OptionValues options = getOptions();
@@ -125,6 +203,201 @@ public class BackgroundCompileQueue {
         }
     }
 
+    /**
+     * A blocking queue that orders requests by their {@linkplain Request#updateHotness hotness}.
+     * The queue is a heap keyed on the hotness at the last update. Every
+     * {@link #HOTNESS_UPDATE_INTERVAL_NANOS}, the next dequeue updates the hotness of all queued
+     * requests and rebuilds the heap, so the order follows the profiles while requests are waiting
+     * at an amortized cost of one update per request and interval. Starved requests go first, in
+     * FIFO order, so that a steady stream of hot requests cannot hold back cold ones forever. The
+     * queue only accepts {@link Request compilation requests}.
+     */
+    static final class HotnessOrderedQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notEmpty = lock.newCondition();
+        private final PriorityQueue<Runnable> heap = new PriorityQueue<>(HotnessOrderedQueue::compare);
+        private long lastHotnessUpdateNanos = System.nanoTime();
+
+        @Override
+        public boolean offer(Runnable e) {
+            Objects.requireNonNull(e);
+            if (requestOf(e) == null) {
+                throw new IllegalArgumentException("Not a compilation request: " + e);
+            }
+            lock.lock();
+            try {
+                heap.add(e);
+                notEmpty.signal();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void put(Runnable e) {
+            offer(e);
+        }
+
+        @Override
+        public boolean offer(Runnable e, long timeout, TimeUnit unit) {
+            return offer(e);
+        }
+
+        @Override
+        public Runnable take() throws InterruptedException {
+            lock.lockInterruptibly();
+            try {
+                while (heap.isEmpty()) {
+                    notEmpty.await();
+                }
+                return removeHottest();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+            long nanos = unit.toNanos(timeout);
+            lock.lockInterruptibly();
+            try {
+                while (heap.isEmpty()) {
+                    if (nanos <= 0) {
+                        return null;
+                    }
+                    nanos = notEmpty.awaitNanos(nanos);
+                }
+                return removeHottest();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public Runnable poll() {
+            lock.lock();
+            try {
+                return heap.isEmpty() ? null : removeHottest();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public Runnable peek() {
+            lock.lock();
+            try {
+                return heap.peek();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            lock.lock();
+            try {
+                return heap.remove(o);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public int size() {
+            lock.lock();
+            try {
+                return heap.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public int remainingCapacity() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public int drainTo(Collection<? super Runnable> c) {
+            return drainTo(c, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public int drainTo(Collection<? super Runnable> c, int maxElements) {
+            lock.lock();
+            try {
+                int n = 0;
+                while (n < maxElements && !heap.isEmpty()) {
+                    c.add(heap.poll());
+                    n++;
+                }
+                return n;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** Returns a snapshot iterator, which does not support removal. */
+        @Override
+        public Iterator<Runnable> iterator() {
+            lock.lock();
+            try {
+                return Collections.unmodifiableList(new ArrayList<>(heap)).iterator();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Runnable removeHottest() {
+            long nowNanos = System.nanoTime();
+            if (nowNanos - lastHotnessUpdateNanos >= HOTNESS_UPDATE_INTERVAL_NANOS) {
+                /* The keys of the heap change, so all requests must be taken out first. */
+                Runnable[] requests = heap.toArray(new Runnable[heap.size()]);
+                heap.clear();
+                for (Runnable request : requests) {
+                    requestOf(request).updateHotness(nowNanos);
+                    heap.add(request);
+                }
+                lastHotnessUpdateNanos = nowNanos;
+            }
+            return heap.poll();
+        }
+
+        /**
+         * Orders starved requests first, then first tier requests, then hotter requests. Ties are
+         * broken by submission order.
+         */
+        private static int compare(Runnable a, Runnable b) {
+            Request r1 = requestOf(a);
+            Request r2 = requestOf(b);
+            if (r1.starved != r2.starved) {
+                return r1.starved ? -1 : 1;
+            }
+            if (!r1.starved) {
+                if (r1.isFirstTier != r2.isFirstTier) {
+                    return r1.isFirstTier ? -1 : 1;
+                }
+                int byHotness = Double.compare(r2.hotness, r1.hotness);
+                if (byHotness != 0) {
+                    return byHotness;
+                }
+            }
+            return Long.compare(r1.id, r2.id);
+        }
+
+        /** Returns the compilation request of a queued task, or null for any other task. */
+        private static Request requestOf(Runnable runnable) {
+            if (runnable instanceof RequestFutureTask) {
+                return ((RequestFutureTask<?>) runnable).request;
+            } else if (runnable instanceof Request) {
+                return (Request) runnable;
+            }
+            return null;
+        }
+    }
+
     public BackgroundCompileQueue() {
         this.idCounter = new AtomicLong();
 
@@ -138,8 +411,15 @@ public class BackgroundCompileQueue {
             }
         }
         selectedProcessors = Math.max(1, selectedProcessors);
-        this.compilationExecutorService = new ThreadPoolExecutor(selectedProcessors, selectedProcessors, 0, TimeUnit.MILLISECONDS,
-                        new PriorityBlockingQueue<>(), factory) {
+        this.minThreads = selectedProcessors;
+        this.maxThreads = computeMaxThreads(selectedProcessors);
+        BlockingQueue<Runnable> queue = TruffleRuntimeOptions.getValue(SharedTruffleRuntimeOptions.TruffleCompilationQueueHotnessOrder) ? new HotnessOrderedQueue() : new PriorityBlockingQueue<>();
+        /*
+         * The queue is unbounded, so the executor never creates more threads than its core pool
+         * size on its own. The pool is resized explicitly by adjustCompilerThreads.
+         */
+        this.compilationExecutorService = new ThreadPoolExecutor(minThreads, maxThreads, 0, TimeUnit.MILLISECONDS,
+                        queue, factory) {
             @Override
             protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
                 return new RequestFutureTask<>(runnable, value);
@@ -147,6 +427,69 @@ public class BackgroundCompileQueue {
         };
     }
 
+    /**
+     * Computes the upper bound of the elastic pool. Without {@code TruffleCompilerThreadsMax}, the
+     * pool keeps its initial size, as before.
+     */
+    private static int computeMaxThreads(int initialThreads) {
+        int requestedMax = TruffleRuntimeOptions.getValue(SharedTruffleRuntimeOptions.TruffleCompilerThreadsMax);
+        if (requestedMax <= 0) {
+            return initialThreads;
+        }
+        int budgetPercent = Math.max(1, Math.min(100, TruffleRuntimeOptions.getValue(SharedTruffleRuntimeOptions.TruffleCompilerThreadsCPUBudget)));
+        int budgetThreads = Math.max(1, Runtime.getRuntime().availableProcessors() * budgetPercent / 100);
+        return Math.max(initialThreads, Math.min(requestedMax, budgetThreads));
+    }
+
+    /**
+     * Adds a compiler thread when the queue has been long, or requests have waited long, for
+     * {@link #GROW_WINDOW_NANOS}, and gives one back when the queue has been empty for
+     * {@link #SHRINK_WINDOW_NANOS}. Both periods start over after each change, so the pool size
+     * does not follow every sample. Called by a compiler thread right before it starts a
+     * compilation.
+     */
+    private void adjustCompilerThreads(int queueLength, long waitNanos) {
+        if (minThreads == maxThreads || !(compilationExecutorService instanceof ThreadPoolExecutor)) {
+            return;
+        }
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) compilationExecutorService;
+        long nowNanos = System.nanoTime();
+        synchronized (executor) {
+            int current = executor.getCorePoolSize();
+            boolean pressure = queueLength > current * QUEUE_LENGTH_PER_THREAD || (queueLength > 0 && waitNanos > GROW_WAIT_NANOS);
+            if (!pressure) {
+                pressureSinceNanos = -1;
+            } else if (pressureSinceNanos == -1) {
+                pressureSinceNanos = nowNanos;
+            }
+            if (queueLength > 0) {
+                idleSinceNanos = -1;
+            } else if (idleSinceNanos == -1) {
+                idleSinceNanos = nowNanos;
+            }
+            if (current < maxThreads && pressureSinceNanos != -1 && nowNanos - pressureSinceNanos >= GROW_WINDOW_NANOS) {
+                executor.setCorePoolSize(current + 1);
+                executor.prestartCoreThread();
+                pressureSinceNanos = nowNanos;
+            } else if (current > minThreads && idleSinceNanos != -1 && nowNanos - idleSinceNanos >= SHRINK_WINDOW_NANOS) {
+                /* Surplus threads exit once they are idle. */
+                executor.setCorePoolSize(current - 1);
+                idleSinceNanos = nowNanos;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of compiler threads the pool currently allows.
+     */
+    public int getCompilerThreads() {
+        if (compilationExecutorService instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) compilationExecutorService).getCorePoolSize();
+        } else {
+            return 0;
+        }
+    }
+
     private static final class TruffleCompilerThreadFactory implements ThreadFactory {
         private final String namePrefix;
 
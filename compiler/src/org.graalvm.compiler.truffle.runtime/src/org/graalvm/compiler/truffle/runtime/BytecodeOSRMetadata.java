@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.runtime;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.SourceSection;
+
+import jdk.vm.ci.meta.SpeculationLog;
+
+/**
+ * On-stack-replacement support for bytecode interpreters, the counterpart of
+ * {@link OptimizedOSRLoopNode} for interpreters that run a whole function in one dispatch loop.
+ *
+ * The interpreter calls {@link #reportBackEdge(VirtualFrame, int)} on every backward jump. Once
+ * the back edges of an invocation exceed {@code TruffleOSRCompilationThreshold}, a call target
+ * that runs {@link BytecodeOSRNode#executeOSR(VirtualFrame, int)} from the jump target is
+ * compiled. The next time the interpreter reaches that jump target, it transfers its frame into
+ * the compiled code, which runs the rest of the function. A compiled OSR variant is specific to
+ * one entry bytecode index. It is invalidated when the nodes of the interpreted function are
+ * rewritten.
+ *
+ * Usage in an interpreter loop:
+ *
+ * <pre>
+ * if (nextBci &lt;= bci) {
+ *     Object result = osrMetadata.reportBackEdge(frame, nextBci);
+ *     if (result != null) {
+ *         return result;
+ *     }
+ * }
+ * </pre>
+ */
+public final class BytecodeOSRMetadata {
+
+    private final BytecodeOSRNode osrNode;
+    private final boolean enabled;
+    private final int threshold;
+    private final int invalidationBackoff;
+
+    /**
+     * OSR call targets by entry bytecode index. Contains scheduled and compiled targets.
+     */
+    private final Map<Integer, OptimizedCallTarget> osrTargets = new ConcurrentHashMap<>();
+
+    /**
+     * The speculation log shared by all OSR compilations of this function, so that failed
+     * speculations are not repeated.
+     */
+    private volatile SpeculationLog speculationLog;
+
+    /**
+     * The number of back edges reported since the last OSR compilation was scheduled.
+     */
+    private int backEdgeCount;
+
+    private BytecodeOSRMetadata(BytecodeOSRNode osrNode, boolean enabled, int threshold, int invalidationBackoff) {
+        this.osrNode = Objects.requireNonNull(osrNode);
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.invalidationBackoff = invalidationBackoff;
+    }
+
+    /**
+     * Creates the OSR metadata of {@code osrNode} with the default configuration. If
+     * {@code TruffleOSR} is disabled, back edges are never reported to the runtime.
+     */
+    public static BytecodeOSRMetadata create(BytecodeOSRNode osrNode) {
+        return new BytecodeOSRMetadata(osrNode, TruffleRuntimeOptions.getValue(SharedTruffleRuntimeOptions.TruffleOSR),
+                        TruffleRuntimeOptions.getValue(SharedTruffleRuntimeOptions.TruffleOSRCompilationThreshold),
+                        TruffleRuntimeOptions.getValue(SharedTruffleRuntimeOptions.TruffleInvalidationReprofileCount));
+    }
+
+    /**
+     * Reports a backward jump to bytecode index {@code target}. Returns {@code null} if the
+     * interpreter must continue at {@code target} itself. Otherwise, the rest of the function was
+     * executed by OSR compiled code and the result is the value the function returns.
+     */
+    public Object reportBackEdge(VirtualFrame frame, int target) {
+        if (!enabled || CompilerDirectives.inCompiledCode()) {
+            return null;
+        }
+        return reportBackEdgeInterpreter(frame, target);
+    }
+
+    /**
+     * Returns the OSR call target for entry bytecode index {@code target}, or {@code null} if none
+     * is scheduled.
+     */
+    public OptimizedCallTarget getOSRTarget(int target) {
+        return osrTargets.get(target);
+    }
+
+    private Object reportBackEdgeInterpreter(VirtualFrame frame, int target) {
+        OptimizedCallTarget osrTarget = osrTargets.isEmpty() ? null : osrTargets.get(target);
+        if (osrTarget != null) {
+            if (osrTarget.isValid()) {
+                return osrTarget.callOSR(frame);
+            }
+            if (!osrTarget.isCompiling()) {
+                invalidateOSRTarget(target, osrTarget, "OSR compilation failed or got invalidated");
+            }
+            return null;
+        }
+        if (++backEdgeCount > threshold) {
+            compileOSRTarget(frame, target);
+        }
+        return null;
+    }
+
+    private synchronized void compileOSRTarget(VirtualFrame frame, int target) {
+        /*
+         * Compilations may be scheduled by multiple threads at the same time. The first thread
+         * wins, later threads will not issue compiles.
+         */
+        if (osrTargets.containsKey(target)) {
+            return;
+        }
+        backEdgeCount = 0;
+        if (speculationLog == null) {
+            speculationLog = GraalTruffleRuntime.getRuntime().createSpeculationLog();
+        }
+        BytecodeOSRRootNode rootNode = new BytecodeOSRRootNode(osrNode, target, frame.getClass(), getNodeRewritingAssumption());
+        OptimizedCallTarget osrTarget = (OptimizedCallTarget) GraalTruffleRuntime.getRuntime().createCallTarget(rootNode);
+        osrTarget.setSpeculationLog(speculationLog);
+        osrTargets.put(target, osrTarget);
+        osrTarget.compile(true);
+    }
+
+    private synchronized void invalidateOSRTarget(int target, OptimizedCallTarget osrTarget, CharSequence reason) {
+        if (osrTargets.remove(target, osrTarget)) {
+            if (invalidationBackoff < 0) {
+                throw new IllegalArgumentException("Invalid OSR invalidation backoff.");
+            }
+            backEdgeCount = Math.min(threshold - invalidationBackoff, backEdgeCount);
+            osrTarget.invalidate(this, reason);
+        }
+    }
+
+    private Assumption getNodeRewritingAssumption() {
+        RootNode rootNode = ((Node) osrNode).getRootNode();
+        RootCallTarget callTarget = rootNode == null ? null : rootNode.getCallTarget();
+        if (callTarget instanceof OptimizedCallTarget) {
+            return ((OptimizedCallTarget) callTarget).getNodeRewritingAssumption();
+        }
+        return null;
+    }
+
+    static final class BytecodeOSRRootNode extends RootNode {
+
+        private final BytecodeOSRNode osrNode;
+        private final int target;
+        private final Class<? extends VirtualFrame> frameClass;
+        /**
+         * The node rewriting assumption of the interpreted function. The OSR code inlines its
+         * nodes without being their root, so it must be invalidated explicitly on rewrites.
+         */
+        private final Assumption nodeRewritingAssumption;
+        private final SourceSection sourceSection;
+
+        BytecodeOSRRootNode(BytecodeOSRNode osrNode, int target, Class<? extends VirtualFrame> frameClass, Assumption nodeRewritingAssumption) {
+            super(null, new FrameDescriptor());
+            this.osrNode = osrNode;
+            this.target = target;
+            this.frameClass = frameClass;
+            this.nodeRewritingAssumption = nodeRewritingAssumption;
+            this.sourceSection = ((Node) osrNode).getSourceSection();
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            if (nodeRewritingAssumption != null && !nodeRewritingAssumption.isValid()) {
+                CompilerDirectives.transferToInterpreter();
+            }
+            VirtualFrame parentFrame = frameClass.cast(frame.getArguments()[0]);
+            return osrNode.executeOSR(parentFrame, target);
+        }
+
+        @Override
+        public SourceSection getSourceSection() {
+            return sourceSection;
+        }
+
+        @Override
+        public boolean isCloningAllowed() {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return osrNode.toString() + "<OSR@" + target + ">";
+        }
+    }
+}
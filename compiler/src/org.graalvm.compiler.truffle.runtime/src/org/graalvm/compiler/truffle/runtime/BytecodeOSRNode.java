@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.runtime;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.NodeInterface;
+
+/**
+ * Interface for the dispatch node of a bytecode interpreter that supports on-stack-replacement at
+ * backward jumps. The interpreter reports every backward jump to a {@link BytecodeOSRMetadata},
+ * which eventually compiles and enters an OSR variant of the dispatch loop.
+ *
+ * @see BytecodeOSRMetadata#reportBackEdge(VirtualFrame, int)
+ */
+public interface BytecodeOSRNode extends NodeInterface {
+
+    /**
+     * Runs the bytecode of this function starting at bytecode index {@code target} until the
+     * function returns, and returns its result. This method is the entry point of the OSR
+     * compilation unit, so {@code target} is a compilation constant there.
+     *
+     * @param osrFrame the frame of the interpreted invocation that reported the back edge. All
+     *            interpreter state must live in this frame.
+     * @param target the bytecode index the backward jump goes to
+     */
+    Object executeOSR(VirtualFrame osrFrame, int target);
+}
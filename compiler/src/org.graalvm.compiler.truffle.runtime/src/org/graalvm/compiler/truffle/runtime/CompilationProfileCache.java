@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.runtime;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.graalvm.compiler.truffle.common.TruffleCompilerListener.CompilationResultInfo;
+import org.graalvm.compiler.truffle.common.TruffleCompilerListener.GraphInfo;
+
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.source.SourceSection;
+
+/**
+ * Remembers across process restarts which call targets were hot enough to be compiled, so that
+ * they get compiled after far fewer calls in the next run.
+ *
+ * Only the fact that a call target was compiled is persisted, not its compiled code or graphs.
+ * Call targets are identified by the SHA-1 digest and length of their source content and the shape
+ * of their root: the root node class, name and source section. A call target that matches an entry
+ * of the cache file gets its compilation thresholds divided by {@link #THRESHOLD_DIVISOR} when it
+ * is first executed. It is then compiled like any other call target, so all assumptions are
+ * checked as usual; a digest collision could only make a call target get compiled earlier.
+ */
+public final class CompilationProfileCache extends AbstractGraalTruffleRuntimeListener {
+
+    public static final int THRESHOLD_DIVISOR = 10;
+    private static final int MAX_ENTRIES = 1 << 16;
+    private static final String HEADER = "# Truffle compilation profile cache v2";
+
+    private final Path file;
+    private final Set<String> cachedKeys;
+    private final Set<String> compiledKeys = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final Map<Source, String> sourceHashes = new WeakHashMap<>();
+
+    private CompilationProfileCache(GraalTruffleRuntime runtime, Path file, Set<String> cachedKeys) {
+        super(runtime);
+        this.file = file;
+        this.cachedKeys = cachedKeys;
+    }
+
+    public static void install(GraalTruffleRuntime runtime) {
+        String fileName = TruffleRuntimeOptions.getValue(SharedTruffleRuntimeOptions.TruffleCompilationProfileCache);
+        if (fileName == null || fileName.isEmpty()) {
+            return;
+        }
+        CompilationProfileCache cache = load(runtime, Paths.get(fileName));
+        runtime.setCompilationProfileCache(cache);
+        runtime.addListener(cache);
+    }
+
+    /**
+     * Creates a cache that is initialized from {@code file}, if it exists, and is written back to
+     * it {@linkplain #onShutdown() on shutdown}.
+     */
+    public static CompilationProfileCache load(GraalTruffleRuntime runtime, Path file) {
+        Set<String> cachedKeys = new LinkedHashSet<>();
+        if (Files.isRegularFile(file)) {
+            try {
+                List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+                if (!lines.isEmpty() && lines.get(0).equals(HEADER)) {
+                    cachedKeys.addAll(lines.subList(1, lines.size()));
+                }
+            } catch (IOException e) {
+                OptimizedCallTarget.log("[truffle] Could not read compilation profile cache " + file + ": " + e);
+            }
+        }
+        return new CompilationProfileCache(runtime, file, Collections.unmodifiableSet(cachedKeys));
+    }
+
+    /**
+     * Lowers the compilation thresholds of {@code profile}, the new profile of {@code target}, if
+     * {@code target} was compiled in a previous run.
+     */
+    public void initializeProfile(OptimizedCallTarget target, OptimizedCompilationProfile profile) {
+        if (cachedKeys.isEmpty()) {
+            return;
+        }
+        String key = keyOf(target);
+        if (key != null && cachedKeys.contains(key)) {
+            profile.reduceThresholds(THRESHOLD_DIVISOR);
+        }
+    }
+
+    @Override
+    public void onCompilationSuccess(OptimizedCallTarget target, TruffleInlining inliningDecision, GraphInfo graph, CompilationResultInfo result) {
+        String key = keyOf(target);
+        if (key != null) {
+            compiledKeys.add(key);
+        }
+    }
+
+    @Override
+    public void onShutdown() {
+        /* Call targets compiled in this run come first, so they survive the size limit. */
+        Set<String> keys = new LinkedHashSet<>(compiledKeys);
+        keys.addAll(cachedKeys);
+        List<String> lines = new ArrayList<>(Math.min(keys.size(), MAX_ENTRIES) + 1);
+        lines.add(HEADER);
+        for (String key : keys) {
+            if (lines.size() > MAX_ENTRIES) {
+                break;
+            }
+            lines.add(key);
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            Files.write(tmp, lines, StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            OptimizedCallTarget.log("[truffle] Could not write compilation profile cache " + file + ": " + e);
+        }
+    }
+
+    private String keyOf(OptimizedCallTarget target) {
+        RootNode root = target.getRootNode();
+        SourceSection section = root.getSourceSection();
+        if (section == null || !section.isAvailable()) {
+            return null;
+        }
+        Source source = section.getSource();
+        if (!source.hasCharacters()) {
+            return null;
+        }
+        String sourceHash = sourceHash(source);
+        String key = source.getLanguage() + '|' + sourceHash + '|' + root.getClass().getName() + '|' + root.getName() + '|' + section.getCharIndex() + '|' + section.getCharLength();
+        return key.replace('\n', ' ').replace('\r', ' ');
+    }
+
+    /**
+     * Returns the digest of the content of {@code source}. It is computed outside of the lock, so
+     * threads hashing different sources do not wait for each other, and cached per source.
+     */
+    private String sourceHash(Source source) {
+        synchronized (sourceHashes) {
+            String hash = sourceHashes.get(source);
+            if (hash != null) {
+                return hash;
+            }
+        }
+        CharSequence characters = source.getCharacters();
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new InternalError(e);
+        }
+        StringBuilder hash = new StringBuilder();
+        for (byte b : digest.digest(characters.toString().getBytes(StandardCharsets.UTF_8))) {
+            hash.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        hash.append(':').append(characters.length());
+        synchronized (sourceHashes) {
+            sourceHashes.put(source, hash.toString());
+        }
+        return hash.toString();
+    }
+}
@@ -143,6 +143,8 @@ public abstract class GraalTruffleRuntime implements TruffleRuntime, TruffleComp
     private ArrayList<String> excludes;
 
     private final GraalTruffleRuntimeListenerDispatcher listeners = new GraalTruffleRuntimeListenerDispatcher();
+    private final GraphSizeInliningPolicy.Recorder graphSizeInliningRecorder = new GraphSizeInliningPolicy.Recorder();
+    private volatile CompilationProfileCache compilationProfileCache;
 
     protected volatile TruffleCompiler truffleCompiler;
     protected LoopNodeFactory loopNodeFactory;
@@ -212,7 +214,7 @@ public abstract class GraalTruffleRuntime implements TruffleRuntime, TruffleComp
 
     @Override
     public TruffleInlining createInliningPlan(CompilableTruffleAST compilable, TruffleCompilationTask task) {
-        TruffleInliningPolicy policy = task != null && task.isLastTier() ? TruffleInliningPolicy.getInliningPolicy() : TruffleInliningPolicy.getNoInliningPolicy();
+        TruffleInliningPolicy policy = task != null && task.isLastTier() ? TruffleInliningPolicy.getInliningPolicy(graphSizeInliningRecorder) : TruffleInliningPolicy.getNoInliningPolicy();
         return new TruffleInlining((OptimizedCallTarget) compilable, policy);
     }
 
@@ -394,6 +396,8 @@ public abstract class GraalTruffleRuntime implements TruffleRuntime, TruffleComp
         TraceSplittingListener.install(this);
         StatisticsListener.install(this);
         TraceASTCompilationListener.install(this);
+        CompilationProfileCache.install(this);
+        GraphSizeInliningPolicy.install(this, graphSizeInliningRecorder);
         installShutdownHooks();
     }
 
@@ -499,6 +503,14 @@ public abstract class GraalTruffleRuntime implements TruffleRuntime, TruffleComp
         return listeners;
     }
 
+    CompilationProfileCache getCompilationProfileCache() {
+        return compilationProfileCache;
+    }
+
+    void setCompilationProfileCache(CompilationProfileCache cache) {
+        this.compilationProfileCache = cache;
+    }
+
     @TruffleBoundary
     @Override
     public <T> T iterateFrames(final FrameInstanceVisitor<T> visitor) {
@@ -90,6 +90,17 @@ public interface GraalTruffleRuntimeListener {
     default void onCompilationStarted(OptimizedCallTarget target) {
     }
 
+    /**
+     * Notifies this object when a compiler thread takes {@code target} from the compilation queue.
+     *
+     * @param target the call target about to be compiled
+     * @param queueWaitNanos the time in nanoseconds the compilation request spent in the queue
+     * @param queueLength the number of compilation requests still waiting in the queue
+     * @param compilerThreads the number of compiler threads the pool currently allows
+     */
+    default void onCompilationQueueSample(OptimizedCallTarget target, long queueWaitNanos, int queueLength, int compilerThreads) {
+    }
+
     /**
      * Notifies this object when compilation of {@code target} has completed partial evaluation and
      * is about to perform compilation of the graph produced by partial evaluation.
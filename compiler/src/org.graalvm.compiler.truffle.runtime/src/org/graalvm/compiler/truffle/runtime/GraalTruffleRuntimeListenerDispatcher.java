@@ -117,6 +117,13 @@ final class GraalTruffleRuntimeListenerDispatcher extends CopyOnWriteArrayList<G
         }
     }
 
+    @Override
+    public void onCompilationQueueSample(OptimizedCallTarget target, long queueWaitNanos, int queueLength, int compilerThreads) {
+        for (GraalTruffleRuntimeListener l : this) {
+            l.onCompilationQueueSample(target, queueWaitNanos, queueLength, compilerThreads);
+        }
+    }
+
     @Override
     public void onShutdown() {
         for (GraalTruffleRuntimeListener l : this) {
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.runtime;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.graalvm.compiler.truffle.common.TruffleCompilerListener.GraphInfo;
+
+/**
+ * An inlining policy that measures call targets by the size of the graph they produced after
+ * partial evaluation instead of by their AST node count.
+ *
+ * Whenever a call target finishes the Truffle tier, its {@link Recorder} records the ratio of graph
+ * nodes to the node count the inlining plan was based on. When the call target is later considered
+ * for inlining, its node count is scaled by how much better or worse that ratio is compared to the
+ * average over all compilations. Call targets that fold away during partial evaluation thus take
+ * less of the inlining budget than their AST suggests. Call targets that were never compiled are
+ * measured by their AST node count, like in {@link DefaultInliningPolicy}.
+ */
+public final class GraphSizeInliningPolicy extends DefaultInliningPolicy {
+
+    private static final double MIN_RELATIVE_SIZE = 0.1;
+    private static final double MAX_RELATIVE_SIZE = 4.0;
+
+    private final Recorder recorder;
+
+    public GraphSizeInliningPolicy(Recorder recorder) {
+        this.recorder = recorder;
+    }
+
+    static boolean isEnabled() {
+        return TruffleRuntimeOptions.getValue(SharedTruffleRuntimeOptions.TruffleGraphSizeInlining);
+    }
+
+    public static void install(GraalTruffleRuntime runtime, Recorder recorder) {
+        if (isEnabled()) {
+            runtime.addListener(recorder);
+        }
+    }
+
+    @Override
+    public int getNodeCount(OptimizedCallTarget target) {
+        int nodeCount = target.getNonTrivialNodeCount();
+        double ratio = recorder.getRatio(target);
+        double averageRatio = recorder.getAverageRatio();
+        if (ratio <= 0 || averageRatio <= 0) {
+            return nodeCount;
+        }
+        double relativeSize = Math.max(MIN_RELATIVE_SIZE, Math.min(MAX_RELATIVE_SIZE, ratio / averageRatio));
+        return Math.max(1, (int) Math.ceil(nodeCount * relativeSize));
+    }
+
+    /**
+     * Records the graph nodes per planned node of each compiled call target, and their average
+     * over all compilations.
+     */
+    public static final class Recorder implements GraalTruffleRuntimeListener {
+        private final Map<OptimizedCallTarget, Double> ratios = new WeakHashMap<>();
+        private long totalGraphNodes;
+        private long totalPlannedNodes;
+
+        @Override
+        public void onCompilationTruffleTierFinished(OptimizedCallTarget target, TruffleInlining inliningDecision, GraphInfo graph) {
+            record(target, inliningDecision, graph.getNodeCount());
+        }
+
+        /**
+         * Records that the compilation of {@code target} with the inlining plan
+         * {@code inliningDecision}, which may be null, produced {@code graphNodes} nodes after
+         * partial evaluation.
+         */
+        public void record(OptimizedCallTarget target, TruffleInlining inliningDecision, int graphNodes) {
+            /*
+             * Count the AST nodes of the compilation unit directly instead of using the (possibly
+             * scaled) counts the inlining plan was based on, so that the recorded ratio does not
+             * depend on earlier ratios.
+             */
+            int plannedNodes = target.getNonTrivialNodeCount() + (inliningDecision != null ? countInlinedNodes(inliningDecision) : 0);
+            if (plannedNodes <= 0 || graphNodes <= 0) {
+                return;
+            }
+            double ratio = (double) graphNodes / plannedNodes;
+            synchronized (this) {
+                ratios.put(target, ratio);
+                if (inliningDecision != null) {
+                    attributeToInlinedTargets(inliningDecision, ratio);
+                }
+                totalGraphNodes += graphNodes;
+                totalPlannedNodes += plannedNodes;
+            }
+        }
+
+        private static int countInlinedNodes(TruffleInlining inlining) {
+            int sum = 0;
+            for (TruffleInliningDecision callSite : inlining) {
+                if (callSite.shouldInline()) {
+                    sum += callSite.getTarget().getNonTrivialNodeCount() + countInlinedNodes(callSite);
+                }
+            }
+            return sum;
+        }
+
+        /**
+         * The graph of a compilation unit cannot be split by call target, so inlined call targets
+         * without a ratio of their own are measured by the ratio of the whole unit until they are
+         * compiled themselves.
+         */
+        private void attributeToInlinedTargets(TruffleInlining inlining, double ratio) {
+            for (TruffleInliningDecision callSite : inlining) {
+                if (callSite.shouldInline()) {
+                    ratios.putIfAbsent(callSite.getTarget(), ratio);
+                    attributeToInlinedTargets(callSite, ratio);
+                }
+            }
+        }
+
+        /**
+         * Returns the graph nodes per planned node of the last compilation of {@code target}, or 0
+         * if none was recorded.
+         */
+        synchronized double getRatio(OptimizedCallTarget target) {
+            Double ratio = ratios.get(target);
+            return ratio != null ? ratio : 0;
+        }
+
+        synchronized double getAverageRatio() {
+            return totalPlannedNodes == 0 ? 0 : (double) totalGraphNodes / totalPlannedNodes;
+        }
+    }
+}
@@ -353,7 +353,12 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
                 this.uninitializedRootNode = NodeUtil.cloneNode(rootNode);
             }
             tvmci.onFirstExecution(this);
-            this.compilationProfile = profile = createCompilationProfile();
+            profile = createCompilationProfile();
+            CompilationProfileCache cache = runtime().getCompilationProfileCache();
+            if (cache != null) {
+                cache.initializeProfile(this, profile);
+            }
+            this.compilationProfile = profile;
         }
         return profile;
     }
@@ -379,6 +379,19 @@ public final class OptimizedCompilationProfile {
         }
     }
 
+    /**
+     * Lowers the compilation thresholds of a call target that was compiled in a previous run, see
+     * {@link CompilationProfileCache}.
+     */
+    void reduceThresholds(int divisor) {
+        if (compilationCallThreshold == 0) { // TruffleCompileImmediately
+            return;
+        }
+        compilationCallThreshold = Math.max(1, compilationCallThreshold / divisor);
+        compilationCallAndLoopThreshold = Math.max(1, compilationCallAndLoopThreshold / divisor);
+        lastTierCompilationCallAndLoopThreshold = Math.max(1, lastTierCompilationCallAndLoopThreshold / divisor);
+    }
+
     private synchronized void ensureProfiling(int calls, int callsAndLoop) {
         if (this.compilationCallThreshold == 0) { // TruffleCompileImmediately
             return;
@@ -67,7 +67,7 @@ public class TruffleInlining implements Iterable<TruffleInliningDecision>, Truff
             return Collections.emptyList();
         }
         int[] visitedNodes = {0};
-        int nodeCount = sourceTarget.getNonTrivialNodeCount();
+        int nodeCount = policy.getNodeCount(sourceTarget);
         List<TruffleInliningDecision> exploredCallSites = exploreCallSites(new ArrayList<>(Arrays.asList(sourceTarget)), nodeCount, policy, visitedNodes, new HashMap<>());
         return decideInlining(exploredCallSites, policy, nodeCount, options);
     }
@@ -128,7 +128,7 @@ public class TruffleInlining implements Iterable<TruffleInliningDecision>, Truff
 
         List<TruffleInliningDecision> childCallSites = Collections.emptyList();
         double frequency = calculateFrequency(parentTarget, callNode);
-        int nodeCount = callNode.getCurrentCallTarget().getNonTrivialNodeCount();
+        int nodeCount = policy.getNodeCount(callNode.getCurrentCallTarget());
 
         int recursions = countRecursions(callStack);
         int deepNodeCount = nodeCount;
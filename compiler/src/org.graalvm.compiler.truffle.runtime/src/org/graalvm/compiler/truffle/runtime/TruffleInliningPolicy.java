@@ -51,9 +51,15 @@ public interface TruffleInliningPolicy {
 
     double calculateScore(TruffleInliningProfile profile);
 
-    @SuppressWarnings("unused")
-    static TruffleInliningPolicy getInliningPolicy() {
-        return new DefaultInliningPolicy();
+    /**
+     * Returns the size of {@code target} that is counted against the inlining budget.
+     */
+    default int getNodeCount(OptimizedCallTarget target) {
+        return target.getNonTrivialNodeCount();
+    }
+
+    static TruffleInliningPolicy getInliningPolicy(GraphSizeInliningPolicy.Recorder graphSizeRecorder) {
+        return GraphSizeInliningPolicy.isEnabled() ? new GraphSizeInliningPolicy(graphSizeRecorder) : new DefaultInliningPolicy();
     }
 
     @SuppressWarnings("unused")
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.test;
+
+import static org.graalvm.compiler.truffle.runtime.SharedTruffleRuntimeOptions.TruffleOSR;
+import static org.graalvm.compiler.truffle.runtime.SharedTruffleRuntimeOptions.TruffleOSRCompilationThreshold;
+
+import org.graalvm.compiler.truffle.runtime.BytecodeOSRMetadata;
+import org.graalvm.compiler.truffle.runtime.BytecodeOSRNode;
+import org.graalvm.compiler.truffle.runtime.GraalTruffleRuntime;
+import org.graalvm.compiler.truffle.runtime.OptimizedCallTarget;
+import org.graalvm.compiler.truffle.runtime.TruffleRuntimeOptions;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.FrameSlotKind;
+import com.oracle.truffle.api.frame.FrameUtil;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.RootNode;
+
+public class BytecodeOSRMetadataTest extends TestWithSynchronousCompiling {
+
+    private static final GraalTruffleRuntime runtime = (GraalTruffleRuntime) Truffle.getRuntime();
+
+    private static final int OSR_THRESHOLD = TruffleRuntimeOptions.getValue(TruffleOSRCompilationThreshold);
+
+    /*
+     * Test that a long running bytecode loop enters OSR compiled code in its first invocation.
+     */
+    @Test
+    public void testOSRAtBackEdge() {
+        CountdownRootNode rootNode = new CountdownRootNode();
+        OptimizedCallTarget target = (OptimizedCallTarget) runtime.createCallTarget(rootNode);
+        Assert.assertEquals(CountdownRootNode.COMPILED, target.call(OSR_THRESHOLD * 2));
+        assertCompiled(rootNode.osrMetadata.getOSRTarget(CountdownRootNode.LOOP_HEADER));
+        Assert.assertEquals(CountdownRootNode.COMPILED, target.call(2));
+    }
+
+    /*
+     * Test that short loops stay in the interpreter.
+     */
+    @Test
+    public void testNoOSRBelowThreshold() {
+        CountdownRootNode rootNode = new CountdownRootNode();
+        OptimizedCallTarget target = (OptimizedCallTarget) runtime.createCallTarget(rootNode);
+        Assert.assertEquals(CountdownRootNode.INTERPRETED, target.call(OSR_THRESHOLD / 2));
+        Assert.assertNull(rootNode.osrMetadata.getOSRTarget(CountdownRootNode.LOOP_HEADER));
+    }
+
+    @SuppressWarnings("try")
+    @Test
+    public void testOSRDisabled() {
+        try (TruffleRuntimeOptions.TruffleRuntimeOptionsOverrideScope s = TruffleRuntimeOptions.overrideOptions(TruffleOSR, false)) {
+            CountdownRootNode rootNode = new CountdownRootNode();
+            OptimizedCallTarget target = (OptimizedCallTarget) runtime.createCallTarget(rootNode);
+            Assert.assertEquals(CountdownRootNode.INTERPRETED, target.call(OSR_THRESHOLD * 2));
+            Assert.assertNull(rootNode.osrMetadata.getOSRTarget(CountdownRootNode.LOOP_HEADER));
+        }
+    }
+
+    /**
+     * A bytecode loop that decrements a counter until it reaches zero:
+     *
+     * <pre>
+     * 0: counter = counter - 1
+     * 1: if counter > 0 goto 0
+     * 2: return
+     * </pre>
+     */
+    private static final class CountdownRootNode extends RootNode implements BytecodeOSRNode {
+
+        static final int LOOP_HEADER = 0;
+        static final String COMPILED = "compiled";
+        static final String INTERPRETED = "interpreted";
+
+        private final FrameSlot counterSlot;
+        final BytecodeOSRMetadata osrMetadata;
+
+        CountdownRootNode() {
+            super(null, new FrameDescriptor());
+            this.counterSlot = getFrameDescriptor().addFrameSlot("counter", FrameSlotKind.Int);
+            this.osrMetadata = BytecodeOSRMetadata.create(this);
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            frame.setInt(counterSlot, (int) frame.getArguments()[0]);
+            return executeFrom(frame, LOOP_HEADER);
+        }
+
+        @Override
+        public Object executeOSR(VirtualFrame osrFrame, int target) {
+            return executeFrom(osrFrame, target);
+        }
+
+        private Object executeFrom(VirtualFrame frame, int startBci) {
+            int bci = startBci;
+            while (true) {
+                switch (bci) {
+                    case 0:
+                        frame.setInt(counterSlot, FrameUtil.getIntSafe(frame, counterSlot) - 1);
+                        bci = 1;
+                        break;
+                    case 1:
+                        if (FrameUtil.getIntSafe(frame, counterSlot) > 0) {
+                            Object result = osrMetadata.reportBackEdge(frame, LOOP_HEADER);
+                            if (result != null) {
+                                return result;
+                            }
+                            bci = LOOP_HEADER;
+                        } else {
+                            bci = 2;
+                        }
+                        break;
+                    default:
+                        return CompilerDirectives.inCompiledCode() ? COMPILED : INTERPRETED;
+                }
+            }
+        }
+    }
+}
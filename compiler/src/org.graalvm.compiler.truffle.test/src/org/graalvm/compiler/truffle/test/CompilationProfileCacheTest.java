@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.graalvm.compiler.truffle.runtime.CompilationProfileCache;
+import org.graalvm.compiler.truffle.runtime.GraalTruffleRuntime;
+import org.graalvm.compiler.truffle.runtime.OptimizedCallTarget;
+import org.graalvm.compiler.truffle.runtime.OptimizedCompilationProfile;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.source.SourceSection;
+import com.oracle.truffle.api.test.polyglot.ProxyLanguage;
+
+public class CompilationProfileCacheTest {
+
+    private static final class SectionRootNode extends RootNode {
+        private final SourceSection section;
+
+        SectionRootNode(SourceSection section) {
+            super(null);
+            this.section = section;
+        }
+
+        @Override
+        public SourceSection getSourceSection() {
+            return section;
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            return null;
+        }
+    }
+
+    private Path file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = Files.createTempFile("compilation-profile-cache", ".txt");
+        Files.delete(file);
+    }
+
+    @After
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private static OptimizedCallTarget createTarget(String code, int charIndex, int length) {
+        Source source = Source.newBuilder(ProxyLanguage.ID, code, "test").build();
+        return (OptimizedCallTarget) GraalTruffleRuntime.getRuntime().createCallTarget(new SectionRootNode(source.createSection(charIndex, length)));
+    }
+
+    private static int initializedThreshold(CompilationProfileCache cache, OptimizedCallTarget target) {
+        OptimizedCompilationProfile profile = OptimizedCompilationProfile.create(target.getOptionValues());
+        cache.initializeProfile(target, profile);
+        return profile.getCompilationCallThreshold();
+    }
+
+    @Test
+    public void testThresholdsAreReducedForCompiledTargetsOnly() {
+        GraalTruffleRuntime runtime = GraalTruffleRuntime.getRuntime();
+        String code = "function a() {} function b() {}";
+        OptimizedCallTarget compiled = createTarget(code, 0, 15);
+        OptimizedCallTarget notCompiled = createTarget(code, 16, 15);
+
+        CompilationProfileCache firstRun = CompilationProfileCache.load(runtime, file);
+        int threshold = initializedThreshold(firstRun, compiled);
+        Assert.assertEquals(threshold, initializedThreshold(firstRun, notCompiled));
+        firstRun.onCompilationSuccess(compiled, null, null, null);
+        firstRun.onShutdown();
+        Assert.assertTrue(Files.isRegularFile(file));
+
+        CompilationProfileCache secondRun = CompilationProfileCache.load(runtime, file);
+        int reducedThreshold = Math.max(1, threshold / CompilationProfileCache.THRESHOLD_DIVISOR);
+        Assert.assertEquals(reducedThreshold, initializedThreshold(secondRun, createTarget(code, 0, 15)));
+        Assert.assertEquals(threshold, initializedThreshold(secondRun, createTarget(code, 16, 15)));
+        Assert.assertEquals("changed source", threshold, initializedThreshold(secondRun, createTarget(code + " ", 0, 15)));
+    }
+
+    @Test
+    public void testCompiledTargetsAreKeptAcrossRuns() {
+        GraalTruffleRuntime runtime = GraalTruffleRuntime.getRuntime();
+        String code = "function a() {}";
+
+        CompilationProfileCache firstRun = CompilationProfileCache.load(runtime, file);
+        firstRun.onCompilationSuccess(createTarget(code, 0, 15), null, null, null);
+        firstRun.onShutdown();
+
+        /* A run that compiles nothing must not forget what earlier runs compiled. */
+        CompilationProfileCache secondRun = CompilationProfileCache.load(runtime, file);
+        secondRun.onShutdown();
+
+        CompilationProfileCache thirdRun = CompilationProfileCache.load(runtime, file);
+        OptimizedCallTarget target = createTarget(code, 0, 15);
+        OptimizedCompilationProfile profile = OptimizedCompilationProfile.create(target.getOptionValues());
+        int threshold = profile.getCompilationCallThreshold();
+        thirdRun.initializeProfile(target, profile);
+        Assert.assertEquals(Math.max(1, threshold / CompilationProfileCache.THRESHOLD_DIVISOR), profile.getCompilationCallThreshold());
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.test;
+
+import org.graalvm.compiler.truffle.runtime.GraphSizeInliningPolicy;
+import org.graalvm.compiler.truffle.runtime.OptimizedCallTarget;
+import org.graalvm.compiler.truffle.runtime.OptimizedDirectCallNode;
+import org.graalvm.compiler.truffle.runtime.SharedTruffleRuntimeOptions;
+import org.graalvm.compiler.truffle.runtime.TruffleInlining;
+import org.graalvm.compiler.truffle.runtime.TruffleRuntimeOptions;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.truffle.api.nodes.Node;
+
+/**
+ * Compares the decisions of {@link GraphSizeInliningPolicy} with those of the default policy for
+ * callees whose recorded graph sizes differ from the average.
+ */
+public class GraphSizeInliningPolicyTest extends TruffleInliningTest {
+
+    private static final int OTHER_TARGET_SIZE = 10000;
+
+    private final GraphSizeInliningPolicy.Recorder recorder = new GraphSizeInliningPolicy.Recorder();
+    private final GraphSizeInliningPolicy graphSizePolicy = new GraphSizeInliningPolicy(recorder);
+
+    private static int maxCallerSize() {
+        return TruffleRuntimeOptions.getValue(SharedTruffleRuntimeOptions.TruffleInliningMaxCallerSize);
+    }
+
+    private OptimizedCallTarget buildCaller(int calleeSize) {
+        // @formatter:off
+        return builder.
+                target("callee", calleeSize).
+                target("caller").
+                    calls("callee").
+                buildTarget();
+        // @formatter:on
+    }
+
+    private static OptimizedCallTarget calleeOf(OptimizedCallTarget caller) {
+        for (Node child : ((InlineTestRootNode) caller.getRootNode()).children) {
+            if (child instanceof OptimizedDirectCallNode) {
+                return ((OptimizedDirectCallNode) child).getCallTarget();
+            }
+        }
+        throw new AssertionError("No call site in " + caller);
+    }
+
+    /**
+     * Records a compilation of a large unrelated call target that produced {@code ratio} graph
+     * nodes per AST node, which dominates the average ratio.
+     */
+    private void recordOtherCompilation(double ratio) {
+        OptimizedCallTarget other = builder.target("other", OTHER_TARGET_SIZE).buildTarget();
+        recorder.record(other, null, (int) (other.getNonTrivialNodeCount() * ratio));
+    }
+
+    private void recordCompilation(OptimizedCallTarget target, double ratio) {
+        recorder.record(target, null, (int) (target.getNonTrivialNodeCount() * ratio));
+    }
+
+    @Test
+    public void testCalleeThatFoldsWellIsInlined() {
+        OptimizedCallTarget caller = buildCaller(maxCallerSize());
+        OptimizedCallTarget callee = calleeOf(caller);
+        recordOtherCompilation(10);
+        recordCompilation(callee, 1);
+
+        Assert.assertTrue(graphSizePolicy.getNodeCount(callee) < policy.getNodeCount(callee));
+        assertNotInlined(new TruffleInlining(caller, policy), "callee");
+        assertInlined(new TruffleInlining(caller, graphSizePolicy), "callee");
+    }
+
+    @Test
+    public void testCalleeThatGrowsIsNotInlined() {
+        OptimizedCallTarget caller = buildCaller(maxCallerSize() / 2);
+        OptimizedCallTarget callee = calleeOf(caller);
+        recordOtherCompilation(1);
+        recordCompilation(callee, 4);
+
+        Assert.assertTrue(graphSizePolicy.getNodeCount(callee) > policy.getNodeCount(callee));
+        assertInlined(new TruffleInlining(caller, policy), "callee");
+        assertNotInlined(new TruffleInlining(caller, graphSizePolicy), "callee");
+    }
+
+    @Test
+    public void testUncompiledCalleeIsMeasuredByNodeCount() {
+        OptimizedCallTarget caller = buildCaller(maxCallerSize() / 2);
+        OptimizedCallTarget callee = calleeOf(caller);
+        recordOtherCompilation(10);
+
+        Assert.assertEquals(policy.getNodeCount(callee), graphSizePolicy.getNodeCount(callee));
+        assertInlined(new TruffleInlining(caller, policy), "callee");
+        assertInlined(new TruffleInlining(caller, graphSizePolicy), "callee");
+    }
+}
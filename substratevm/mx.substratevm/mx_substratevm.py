@@ -569,6 +569,8 @@ native_image_context.hosted_assertions = ['-J-ea', '-J-esa']
 def svm_gate_body(args, tasks):
     with Task('Build native-image image', tasks, tags=[GraalTags.build, GraalTags.helloworld]) as t:
         if t: build_native_image_image()
+    with Task('Hosted unittests', tasks, tags=[GraalTags.test]) as t:
+        if t: mx_unittest.unittest(['com.oracle.svm.hosted.test'])
     with native_image_context(IMAGE_ASSERTION_FLAGS) as native_image:
         with Task('image demos', tasks, tags=[GraalTags.helloworld]) as t:
             if t:
@@ -583,6 +585,10 @@ def svm_gate_body(args, tasks):
             if t:
                 native_unittest([])
 
+        with Task('native unittests with image heap reuse', tasks, tags=[GraalTags.test]) as t:
+            if t and mx.get_os() == 'linux':
+                native_unittest(['com.oracle.svm.test.IsolateImageHeapReuseTest', '--build-args', '-H:+ReuseIsolateImageHeap'])
+
         with Task('Run Truffle NFI unittests with SVM image', tasks, tags=["svmjunit"]) as t:
             if t:
                 testlib = mx_subst.path_substitutions.substitute('-Dnative.test.lib=<path:truffle:TRUFFLE_TEST_NATIVE>/<lib:nativetest>')
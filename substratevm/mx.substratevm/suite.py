@@ -418,6 +418,20 @@ suite = {
             "spotbugs": "false",
         },
 
+        "com.oracle.svm.hosted.test": {
+            "subDir": "src",
+            "sourceDirs": ["src"],
+            "dependencies": [
+                "com.oracle.svm.hosted",
+                "com.oracle.svm.core.genscavenge",
+                "mx:JUNIT",
+            ],
+            "checkstyle": "com.oracle.svm.core",
+            "workingSets": "SVM",
+            "javaCompliance": "8+",
+            "spotbugs": "false",
+        },
+
         "com.oracle.svm.reflect": {
             "subDir": "src",
             "sourceDirs": ["src"],
@@ -891,6 +905,21 @@ suite = {
             ],
         },
 
+        "SVM_HOSTED_TESTS" : {
+          "relpath" : True,
+          "dependencies" : [
+            "com.oracle.svm.hosted.test",
+          ],
+          "distDependencies": [
+            "mx:JUNIT_TOOL",
+            "SVM",
+          ],
+          "exclude": [
+            "mx:JUNIT",
+          ],
+          "testDistribution" : True,
+        },
+
         "SVM_TESTS" : {
           "relpath" : True,
           "dependencies" : [
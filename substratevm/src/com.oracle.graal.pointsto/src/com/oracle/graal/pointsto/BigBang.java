@@ -494,10 +494,13 @@ public abstract class BigBang {
     }
 
     public void postFlow(final TypeFlow<?> operation) {
-        if (operation.inQueue) {
+        /*
+         * Coalesce updates: all state added to the flow before the scheduled update runs is
+         * propagated by that single update, so there is no need to schedule another task.
+         */
+        if (!operation.tryEnqueue()) {
             return;
         }
-        operation.inQueue = true;
 
         executor.execute(new TypeFlowRunnable() {
 
@@ -505,7 +508,7 @@ public abstract class BigBang {
             public void run(DebugContext ignored) {
                 PointsToStats.registerTypeFlowQueuedUpdate(BigBang.this, operation);
 
-                operation.inQueue = false;
+                operation.dequeue();
                 operation.update(BigBang.this);
             }
 
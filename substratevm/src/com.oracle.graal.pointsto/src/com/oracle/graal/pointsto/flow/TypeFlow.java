@@ -26,6 +26,7 @@ package com.oracle.graal.pointsto.flow;
 
 import java.util.Collection;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import org.graalvm.compiler.graph.Node;
@@ -76,11 +77,15 @@ public abstract class TypeFlow<T> {
      */
     protected boolean usedAsAReceiver;
 
-    public volatile boolean inQueue;
+    /** Non-zero while an update of this flow is scheduled but has not started yet. */
+    private volatile int inQueue;
 
     @SuppressWarnings("rawtypes")//
     private static final AtomicReferenceFieldUpdater<TypeFlow, TypeState> STATE_UPDATER = AtomicReferenceFieldUpdater.newUpdater(TypeFlow.class, TypeState.class, "state");
 
+    @SuppressWarnings("rawtypes")//
+    private static final AtomicIntegerFieldUpdater<TypeFlow> IN_QUEUE_UPDATER = AtomicIntegerFieldUpdater.newUpdater(TypeFlow.class, "inQueue");
+
     private TypeFlow(T source, AnalysisType declaredType, TypeState typeState, int slot, boolean isClone, MethodFlowsGraph graphRef) {
         this.id = nextId.incrementAndGet();
         this.source = source;
@@ -220,6 +225,19 @@ public abstract class TypeFlow<T> {
         return this.slot;
     }
 
+    /**
+     * Marks this flow as scheduled for an update. Returns false if an update is already scheduled,
+     * in which case that update will also propagate the state added by the caller.
+     */
+    public boolean tryEnqueue() {
+        return inQueue == 0 && IN_QUEUE_UPDATER.compareAndSet(this, 0, 1);
+    }
+
+    /** Must be called before the scheduled update runs, so that later state changes post again. */
+    public void dequeue() {
+        inQueue = 0;
+    }
+
     public boolean addState(BigBang bb, TypeState add) {
         return addState(bb, add, true);
     }
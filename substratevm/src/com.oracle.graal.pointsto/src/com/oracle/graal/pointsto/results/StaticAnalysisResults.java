@@ -54,16 +54,33 @@ public class StaticAnalysisResults implements ProfilingInfo {
          */
         private final JavaTypeProfile typeProfile;
 
+        /**
+         * The probability that the branch bytecode at this bci is taken, or -1 if unknown. Branch
+         * probabilities are not computed by the static analysis, they can only come from profiles.
+         */
+        private final double branchTakenProbability;
+
         public BytecodeEntry(int bci, JavaTypeProfile typeProfile, JavaMethodProfile methodProfile, JavaTypeProfile invokeResultTypeProfile) {
+            this(bci, typeProfile, methodProfile, invokeResultTypeProfile, -1);
+        }
+
+        public BytecodeEntry(int bci, JavaTypeProfile typeProfile, JavaMethodProfile methodProfile, JavaTypeProfile invokeResultTypeProfile, double branchTakenProbability) {
             this.bci = bci;
             this.methodProfile = methodProfile;
             this.invokeResultTypeProfile = invokeResultTypeProfile;
             this.typeProfile = typeProfile;
+            this.branchTakenProbability = branchTakenProbability;
+        }
+
+        /** Returns an entry with the profiles of this entry and the given branch probability. */
+        public BytecodeEntry withBranchTakenProbability(double probability) {
+            return new BytecodeEntry(bci, typeProfile, methodProfile, invokeResultTypeProfile, probability);
         }
 
         @Override
         public String toString() {
-            return "BytecodeEntry(bci=" + bci + ", typeProfile=" + typeProfile + ", methodProfile=" + methodProfile + ", invokeResultTypeProfile=" + invokeResultTypeProfile + ")";
+            return "BytecodeEntry(bci=" + bci + ", typeProfile=" + typeProfile + ", methodProfile=" + methodProfile + ", invokeResultTypeProfile=" + invokeResultTypeProfile +
+                            ", branchTakenProbability=" + branchTakenProbability + ")";
         }
 
     }
@@ -145,8 +162,9 @@ public class StaticAnalysisResults implements ProfilingInfo {
 
     @Override
     public double getBranchTakenProbability(int bci) {
-        /* Static analysis cannot determine branch probabilities. */
-        return -1;
+        /* Static analysis cannot determine branch probabilities, but profiles can provide them. */
+        BytecodeEntry entry = lookup(bci);
+        return entry == null ? -1 : entry.branchTakenProbability;
     }
 
     @Override
@@ -179,7 +197,7 @@ public class StaticAnalysisResults implements ProfilingInfo {
     @Override
     public TriState getNullSeen(int bci) {
         BytecodeEntry entry = lookup(bci);
-        return entry == null ? TriState.UNKNOWN : entry.typeProfile.getNullSeen();
+        return entry == null || entry.typeProfile == null ? TriState.UNKNOWN : entry.typeProfile.getNullSeen();
     }
 
     @Override
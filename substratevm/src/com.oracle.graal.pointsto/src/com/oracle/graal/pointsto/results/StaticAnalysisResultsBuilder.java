@@ -160,6 +160,20 @@ public class StaticAnalysisResultsBuilder {
             }
         }
 
+        Map<Integer, Double> branchProbabilities = getBranchTakenProbabilities(method);
+        if (branchProbabilities != null) {
+            for (Map.Entry<Integer, Double> entry : branchProbabilities.entrySet()) {
+                int bci = entry.getKey();
+                ensureSize(entries, bci);
+                BytecodeEntry existing = entries.get(bci);
+                if (existing == null) {
+                    entries.set(bci, new BytecodeEntry(bci, null, null, null, entry.getValue()));
+                } else {
+                    entries.set(bci, existing.withBranchTakenProbability(entry.getValue()));
+                }
+            }
+        }
+
         if (PointstoOptions.PrintSynchronizedAnalysis.getValue(bb.getOptions())) {
             originalFlows.getMonitorEntries().stream()
                             .filter(m -> m.getState().typesCount() > 20)
@@ -216,6 +230,14 @@ public class StaticAnalysisResultsBuilder {
         return false;
     }
 
+    /**
+     * Returns the probabilities, keyed by bci, that the branch bytecodes of the method are taken,
+     * or {@code null} if there is no branch profile for the method.
+     */
+    protected Map<Integer, Double> getBranchTakenProbabilities(@SuppressWarnings("unused") AnalysisMethod method) {
+        return null;
+    }
+
     private static boolean hasStaticProfiles(JavaTypeProfile typeProfile, JavaMethodProfile methodProfile, JavaTypeProfile invokeResultTypeProfile) {
         return typeProfile != null || methodProfile != null || invokeResultTypeProfile != null;
     }
@@ -35,8 +35,10 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
@@ -115,6 +117,7 @@ public class PointsToStats {
             doReport(statsDirectory, reportNameRoot, "type state stats", timeStamp, PointsToStats::reportTypeStateStats);
             doReport(statsDirectory, reportNameRoot, "union operation stats", timeStamp, PointsToStats::reportUnionOpertationsStats);
             doReport(statsDirectory, reportNameRoot, "type flow stats", timeStamp, PointsToStats::reportTypeFlowStats);
+            doReport(statsDirectory, reportNameRoot, "type flow kind counts", timeStamp, PointsToStats::reportTypeFlowKindCounts);
             doReport(statsDirectory, reportNameRoot, "pruned type flow stats", timeStamp, PointsToStats::reportPrunedTypeFlows);
 
         } catch (IOException e) {
@@ -331,6 +334,32 @@ public class PointsToStats {
 
     }
 
+    /**
+     * Counts the flows that received updates, and their uses, observers and state objects, by the
+     * kind, i.e., class, of the flow. These are element counts, not retained bytes; they show which
+     * kinds of flows dominate the type flow graph.
+     */
+    private static void reportTypeFlowKindCounts(BufferedWriter out) {
+
+        doWrite(out, String.format("%-35s\t%10s\t%10s\t%10s\t%10s\n", "TypeFlowKind", "Flows#", "Uses#", "Observers#", "StateObjects#"));
+
+        Map<String, long[]> kindStats = new TreeMap<>();
+        for (TypeFlow<?> flow : typeFlowStats.keySet()) {
+            long[] stats = kindStats.computeIfAbsent(flow.getClass().getSimpleName(), k -> new long[4]);
+            stats[0]++;
+            stats[1] += flow.getUses().size();
+            stats[2] += flow.getObservers().size();
+            stats[3] += objectsCount(flow.getState());
+        }
+
+        kindStats.entrySet().stream()
+                        .sorted(Comparator.comparingLong((Entry<String, long[]> e) -> e.getValue()[1] + e.getValue()[2] + e.getValue()[3]).reversed())
+                        .forEach(e -> {
+                            long[] stats = e.getValue();
+                            doWrite(out, String.format("%-35s\t%10d\t%10d\t%10d\t%10d\n", e.getKey(), stats[0], stats[1], stats[2], stats[3]));
+                        });
+    }
+
     private static ConcurrentHashMap<TypeState, Integer> stateToId = new ConcurrentHashMap<>();
     private static ConcurrentHashMap<Integer, TypeState> idToState = new ConcurrentHashMap<>();
 
@@ -446,7 +446,13 @@ public class AlignedHeapChunk extends HeapChunk {
         return true;
     }
 
-    /** Walk the dirty Objects in this chunk, passing each to a Visitor. */
+    /**
+     * Walk the dirty Objects in this chunk, passing each to a Visitor.
+     *
+     * Runs of dirty cards are walked as one contiguous region: if the walk of a previous card ended
+     * at or past the start of the current card, the walk continues from there instead of consulting
+     * the FirstObjectTable again, and objects are never visited twice.
+     */
     static boolean walkDirtyObjectsOfAlignedHeapChunk(AlignedHeader that, ObjectVisitor visitor, boolean clean) {
         final Log trace = Log.noopLog().string("[AlignedHeapChunk.walkDirtyObjectsOfAlignedHeapChunk:");
         trace.string("  that: ").hex(that).string("  clean: ").bool(clean);
@@ -458,17 +464,19 @@ public class AlignedHeapChunk extends HeapChunk {
         final UnsignedWord memorySize = objectsLimit.subtract(objectsStart);
         final UnsignedWord indexLimit = CardTable.indexLimitForMemorySize(memorySize);
         trace.string("  objectsStart: ").hex(objectsStart).string("  objectsLimit: ").hex(objectsLimit).string("  indexLimit: ").unsigned(indexLimit);
+        /* The end of the last object visited so far. */
+        Pointer walkedLimit = objectsStart;
         for (UnsignedWord index = WordFactory.zero(); index.belowThan(indexLimit); index = index.add(1)) {
             trace.newline().string("  ").string("  index: ").unsigned(index);
             /* If the card is dirty, visit the objects it covers. */
             if (CardTable.isDirtyEntryAtIndex(cardTableStart, index)) {
+                final Pointer cardStart = CardTable.indexToMemoryPointer(objectsStart, index);
                 final Pointer cardLimit = CardTable.indexToMemoryPointer(objectsStart, index.add(1));
-                final Pointer crossingOntoPointer = FirstObjectTable.getPreciseFirstObjectPointer(fotStart, objectsStart, objectsLimit, index);
-                final Object crossingOntoObject = crossingOntoPointer.toObject();
-                assert walkDirtyObjectsOfAlignedHeapChunkAssert(crossingOntoObject, that, cardTableStart, fotStart, objectsStart, objectsLimit, cardLimit) //
+                assert walkDirtyObjectsOfAlignedHeapChunkAssert(FirstObjectTable.getPreciseFirstObjectPointer(fotStart, objectsStart, objectsLimit, index).toObject(),
+                                that, cardTableStart, fotStart, objectsStart, objectsLimit, cardLimit) //
                 : "AlignedHeapChunk.walkDirtyObjectsOfAlignedHeapChunk: crossingOntoObject hub fails to verify.";
                 if (trace.isEnabled()) {
-                    final Pointer cardStart = CardTable.indexToMemoryPointer(objectsStart, index);
+                    final Object crossingOntoObject = FirstObjectTable.getPreciseFirstObjectPointer(fotStart, objectsStart, objectsLimit, index).toObject();
                     trace.string("    ").string("  cardStart: ").hex(cardStart);
                     trace.string("  cardLimit: ").hex(cardLimit);
                     trace.string("  crossingOntoObject: ").object(crossingOntoObject);
@@ -480,9 +488,15 @@ public class AlignedHeapChunk extends HeapChunk {
                 trace.newline();
                 /*
                  * Iterate through the objects on that card. Find the start of the
-                 * imprecisely-marked card.
+                 * imprecisely-marked card. If an earlier walk already reached this card, then the
+                 * end of that walk is exactly the imprecise start of this card.
                  */
-                final Pointer impreciseStart = FirstObjectTable.getImpreciseFirstObjectPointer(fotStart, objectsStart, objectsLimit, index);
+                final Pointer impreciseStart;
+                if (walkedLimit.aboveOrEqual(cardStart)) {
+                    impreciseStart = walkedLimit;
+                } else {
+                    impreciseStart = FirstObjectTable.getImpreciseFirstObjectPointer(fotStart, objectsStart, objectsLimit, index);
+                }
                 /*
                  * Walk the objects to the end of an object, even if that is past cardLimit, because
                  * these are imprecise cards.
@@ -509,6 +523,7 @@ public class AlignedHeapChunk extends HeapChunk {
                     }
                     ptr = objEnd;
                 }
+                walkedLimit = ptr;
                 if (clean) {
                     CardTable.cleanEntryAtIndex(cardTableStart, index);
                 }
@@ -29,10 +29,12 @@ import org.graalvm.nativeimage.Feature.FeatureAccess;
 import org.graalvm.nativeimage.Platform;
 import org.graalvm.nativeimage.Platforms;
 import org.graalvm.word.UnsignedWord;
+import org.graalvm.word.WordFactory;
 
 import com.oracle.svm.core.log.Log;
 import com.oracle.svm.core.option.HostedOptionKey;
 import com.oracle.svm.core.option.RuntimeOptionKey;
+import com.oracle.svm.core.option.XOptions;
 import com.oracle.svm.core.util.TimeUtils;
 
 /** A collection policy to decide when to collect incrementally or completely. */
@@ -52,6 +54,13 @@ public abstract class CollectionPolicy {
          */
         @Option(help = "Percentage of time that should be spent in young generation collections.")//
         public static final RuntimeOptionKey<Integer> PercentTimeInIncrementalCollection = new RuntimeOptionKey<>(50);
+
+        @Option(help = "The goal for the pause time of collections, in milliseconds, for the Adaptive collection policy.  0 implies no goal.")//
+        public static final RuntimeOptionKey<Long> MaxGCPauseMillis = new RuntimeOptionKey<>(0L);
+
+        /** A ratio of N means that at most 1/(1+N) of the total time should be spent collecting. */
+        @Option(help = "The goal for the ratio of mutator time to collection time, for the Adaptive collection policy.")//
+        public static final RuntimeOptionKey<Integer> GCTimeRatio = new RuntimeOptionKey<>(19);
     }
 
     @Platforms(Platform.HOSTED_ONLY.class)
@@ -65,17 +74,73 @@ public abstract class CollectionPolicy {
     /** Return true if this collection should be a complete collection. */
     public abstract boolean collectCompletely();
 
+    /**
+     * Called after each collection, once the {@linkplain #getAccounting() accounting} includes the
+     * collection. Policies that adapt the heap to the collections override this method.
+     */
+    public void onCollectionEnd(@SuppressWarnings("unused") boolean completeCollection) {
+        /* Nothing to do. */
+    }
+
+    /**
+     * The time since when there have been more unused aligned chunks than the reserve after each
+     * complete collection, or 0.
+     */
+    private long unusedChunkExcessSinceNanos;
+
     /** Constructor for subclasses. */
     CollectionPolicy() {
         /* Nothing to do. */
     }
 
+    /**
+     * Called after complete collections, and periodically by the {@link UnusedChunkReleaser}, with
+     * the number of bytes in unused aligned chunks. Returns true if the unused chunks beyond
+     * {@link HeapPolicyOptions#UnusedChunkReserveSize} should be returned to the operating system,
+     * because there have been more unused chunks than that for at least
+     * {@link HeapPolicyOptions#UncommitUnusedChunksDelayMillis}.
+     */
+    public boolean releaseUnusedChunks(UnsignedWord unusedChunkBytes) {
+        final long delayMillis = HeapPolicyOptions.UncommitUnusedChunksDelayMillis.getValue();
+        if (delayMillis <= 0L || unusedChunkBytes.belowOrEqual(getUnusedChunkReserve())) {
+            unusedChunkExcessSinceNanos = 0L;
+            return false;
+        }
+        if (unusedChunkExcessSinceNanos == 0L) {
+            unusedChunkExcessSinceNanos = System.nanoTime();
+        }
+        return TimeUtils.nanoSecondsSince(unusedChunkExcessSinceNanos) >= TimeUtils.millisToNanos(delayMillis);
+    }
+
+    static UnsignedWord getUnusedChunkReserve() {
+        return WordFactory.unsigned(HeapPolicyOptions.UnusedChunkReserveSize.getValue());
+    }
+
     public abstract void nameToLog(Log log);
 
     protected static GCImpl.Accounting getAccounting() {
         return HeapImpl.getHeapImpl().getGCImpl().getAccounting();
     }
 
+    /**
+     * The space a complete collection needs to copy an old generation of the given size, if that
+     * space should count against the maximum heap size, or zero otherwise.
+     *
+     * Once the live old generation is larger than the maximum heap size minus the reserve, counting
+     * the reserve would request a complete collection at every collection. The reserve is therefore
+     * only counted while the most recent complete collection freed at least as much as the reserve.
+     */
+    protected static UnsignedWord getCopyReserve(UnsignedWord oldSize) {
+        if (!HeapPolicyOptions.IncludeCopyReserveInMaximumHeapSize.getValue()) {
+            return WordFactory.zero();
+        }
+        final GCImpl.Accounting accounting = getAccounting();
+        if (accounting.getCompleteCollectionCount() > 0 && accounting.getLastCompleteCollectionFreedChunkBytes().belowThan(oldSize)) {
+            return WordFactory.zero();
+        }
+        return oldSize;
+    }
+
     /** For debugging: A collection policy that only collects incrementally. */
     public static class OnlyIncrementally extends CollectionPolicy {
 
@@ -163,7 +228,7 @@ public abstract class CollectionPolicy {
          * If the time spent in incremental collections is more than the requested percentage of the
          * total time, then ask for a complete collection.
          */
-        private static boolean collectCompletelyBasedOnTime(Log trace) {
+        static boolean collectCompletelyBasedOnTime(Log trace) {
             final int incrementalWeight = Options.PercentTimeInIncrementalCollection.getValue();
             trace.string("  incrementalWeight: ").signed(incrementalWeight).newline();
             assert ((0L <= incrementalWeight) && (incrementalWeight <= 100L)) : "ByTimePercentTimeInIncrementalCollection should be in the range [0..100].";
@@ -188,13 +253,14 @@ public abstract class CollectionPolicy {
          * If the heap does not have room for the young generation, the old objects already in use,
          * and a complete copy of the young generation, then request a complete collection.
          */
-        private static boolean collectCompletelyBasedOnSpace(Log trace) {
+        static boolean collectCompletelyBasedOnSpace(Log trace) {
             final UnsignedWord heapSize = HeapPolicy.getMaximumHeapSize();
             final UnsignedWord youngSize = HeapPolicy.getMaximumYoungGenerationSize();
             final UnsignedWord oldInUse = getAccounting().getOldGenerationAfterChunkBytes();
             final UnsignedWord withFullPromotion = youngSize.add(oldInUse).add(youngSize);
-            trace.string("  withFullPromotion: ").unsigned(withFullPromotion).newline();
-            return heapSize.belowThan(withFullPromotion);
+            final UnsignedWord withCopyReserve = withFullPromotion.add(getCopyReserve(oldInUse.add(youngSize)));
+            trace.string("  withFullPromotion: ").unsigned(withFullPromotion).string("  withCopyReserve: ").unsigned(withCopyReserve).newline();
+            return heapSize.belowThan(withCopyReserve);
         }
     }
 
@@ -244,7 +310,8 @@ public abstract class CollectionPolicy {
             final UnsignedWord youngSize = HeapPolicy.getMaximumYoungGenerationSize();
             final UnsignedWord oldInUse = getAccounting().getOldGenerationAfterChunkBytes();
             final UnsignedWord averagePromotion = getAccounting().averagePromotedUnpinnedChunkBytes().add(getAccounting().averagePromotedPinnedChunkBytes());
-            final UnsignedWord expectedSize = youngSize.add(oldInUse).add(averagePromotion);
+            final UnsignedWord copyReserve = getCopyReserve(oldInUse.add(averagePromotion));
+            final UnsignedWord expectedSize = youngSize.add(oldInUse).add(averagePromotion).add(copyReserve);
             final UnsignedWord maxHeapSize = HeapPolicy.getMaximumHeapSize();
             final boolean vote = maxHeapSize.belowThan(expectedSize);
             trace.string("  youngSize: ").unsigned(youngSize)
@@ -252,6 +319,7 @@ public abstract class CollectionPolicy {
                             .string("  averagePromotedUnpinnedChunkBytes: ").unsigned(getAccounting().averagePromotedUnpinnedChunkBytes())
                             .string("  averagePromotedPinnedChunkBytes: ").unsigned(getAccounting().averagePromotedPinnedChunkBytes())
                             .string("  averagePromotion: ").unsigned(averagePromotion)
+                            .string("  copyReserve: ").unsigned(copyReserve)
                             .string("  expectedSize: ").unsigned(expectedSize)
                             .string("  maxHeapSize: ").unsigned(maxHeapSize)
                             .string("  vote: ").bool(vote)
@@ -297,4 +365,139 @@ public abstract class CollectionPolicy {
             return veto;
         }
     }
+
+    /**
+     * A collection policy that resizes the young generation to meet a pause time goal and a
+     * throughput goal, and that balances incremental and complete collections like {@link ByTime}.
+     *
+     * After each collection, the average pause of the incremental collections since the previous
+     * decision is compared with {@link Options#MaxGCPauseMillis}. If the pauses are too long, the
+     * young generation shrinks. Otherwise, if more than 1/(1+{@link Options#GCTimeRatio}) of the
+     * time since the previous decision was spent collecting, the young generation grows, so that
+     * collections become less frequent. An explicitly set young generation size (`-Xmn`) is never
+     * changed.
+     *
+     * A complete collection is requested if the heap is running out of space, or if the time spent
+     * in incremental collections calls for it, unless the previous complete collection exceeded the
+     * pause time goal.
+     */
+    public static class Adaptive extends CollectionPolicy {
+
+        /** Shrink the young generation by 1/SHRINK_DIVISOR when the pause time goal is missed. */
+        private static final int SHRINK_DIVISOR = 8;
+        /** Grow the young generation by 1/GROW_DIVISOR when the throughput goal is missed. */
+        private static final int GROW_DIVISOR = 4;
+        /** The young generation can grow to at most 1/MAXIMUM_YOUNG_DIVISOR of the heap. */
+        private static final int MAXIMUM_YOUNG_DIVISOR = 3;
+        /** The young generation can shrink to at least this many aligned chunks. */
+        private static final int MINIMUM_YOUNG_CHUNKS = 2;
+
+        /* The accounting as of the previous decision. */
+        private long previousIncrementalCount;
+        private long previousIncrementalNanos;
+        private long previousCompleteCount;
+        private long previousCompleteNanos;
+        private long previousMutatorNanos;
+        /** The pause of the most recent complete collection. */
+        private long lastCompleteNanos;
+
+        @Override
+        public boolean collectIncrementally() {
+            return true;
+        }
+
+        @Override
+        public boolean collectCompletely() {
+            final Log trace = Log.noopLog().string("[CollectionPolicy.Adaptive.collectCompletely:").newline();
+            final boolean result;
+            if (ByTime.collectCompletelyBasedOnSpace(trace)) {
+                result = true;
+            } else if (exceedsPauseGoal(lastCompleteNanos, pauseGoalNanos())) {
+                result = false;
+            } else {
+                result = ByTime.collectCompletelyBasedOnTime(trace);
+            }
+            trace.string("  returns: ").bool(result).string("]").newline();
+            return result;
+        }
+
+        /** Resize the young generation based on the collections since the previous call. */
+        @Override
+        public void onCollectionEnd(boolean completeCollection) {
+            final Log trace = Log.noopLog().string("[CollectionPolicy.Adaptive.onCollectionEnd:").newline();
+            final GCImpl.Accounting accounting = getAccounting();
+            final long incrementalCount = accounting.getIncrementalCollectionCount() - previousIncrementalCount;
+            final long incrementalNanos = accounting.getIncrementalCollectionTotalNanos() - previousIncrementalNanos;
+            final long completeCount = accounting.getCompleteCollectionCount() - previousCompleteCount;
+            final long completeNanos = accounting.getCompleteCollectionTotalNanos() - previousCompleteNanos;
+            final long mutatorNanos = HeapImpl.getHeapImpl().getGCImpl().getMutatorNanos() - previousMutatorNanos;
+            previousIncrementalCount = accounting.getIncrementalCollectionCount();
+            previousIncrementalNanos = accounting.getIncrementalCollectionTotalNanos();
+            previousCompleteCount = accounting.getCompleteCollectionCount();
+            previousCompleteNanos = accounting.getCompleteCollectionTotalNanos();
+            previousMutatorNanos = HeapImpl.getHeapImpl().getGCImpl().getMutatorNanos();
+            if (0L < completeCount) {
+                lastCompleteNanos = completeNanos / completeCount;
+            }
+            if (incrementalCount == 0L || XOptions.getXmn().getEpoch() > 0) {
+                /* Nothing new to learn from, or the size of the young generation is fixed. */
+                trace.string("]").newline();
+                return;
+            }
+
+            final long averagePauseNanos = incrementalNanos / incrementalCount;
+            final long youngSize = HeapPolicy.getMaximumYoungGenerationSize().rawValue();
+            final long newYoungSize = computeYoungGenerationSize(youngSize, averagePauseNanos, incrementalNanos + completeNanos, mutatorNanos,
+                            pauseGoalNanos(), Options.GCTimeRatio.getValue(), HeapPolicy.getAlignedHeapChunkSize().rawValue(), HeapPolicy.getMaximumHeapSize().rawValue());
+            trace.string("  averagePauseNanos: ").signed(averagePauseNanos)
+                            .string("  gcNanos: ").signed(incrementalNanos + completeNanos)
+                            .string("  mutatorNanos: ").signed(mutatorNanos)
+                            .string("  youngSize: ").signed(youngSize)
+                            .string("  newYoungSize: ").signed(newYoungSize)
+                            .string("]").newline();
+            if (newYoungSize != youngSize) {
+                HeapPolicy.setMaximumYoungGenerationSize(WordFactory.unsigned(newYoungSize));
+            }
+        }
+
+        @Override
+        public void nameToLog(Log log) {
+            log.string("adaptive: ").signed(Options.MaxGCPauseMillis.getValue()).string(" msec pause goal, ").signed(Options.GCTimeRatio.getValue()).string(" time ratio goal");
+        }
+
+        private static long pauseGoalNanos() {
+            return TimeUtils.millisToNanos(Options.MaxGCPauseMillis.getValue());
+        }
+
+        private static boolean exceedsPauseGoal(long pauseNanos, long pauseGoalNanos) {
+            return (0L < pauseGoalNanos) && TimeUtils.nanoTimeLessThan(pauseGoalNanos, pauseNanos);
+        }
+
+        /**
+         * Computes the maximum size of the young generation from the collections since the previous
+         * decision. Sizes are in bytes and times are in nanoseconds. A pause time goal of 0 means
+         * that there is no pause time goal.
+         *
+         * If the average incremental pause exceeds the pause time goal, the young generation
+         * shrinks. Otherwise, if collections took more than 1/(1+timeRatio) of the elapsed time, it
+         * grows. A changed size is a multiple of the chunk size. The result is between
+         * {@link #MINIMUM_YOUNG_CHUNKS} chunks and 1/{@link #MAXIMUM_YOUNG_DIVISOR} of the maximum
+         * heap size.
+         */
+        public static long computeYoungGenerationSize(long youngSize, long averagePauseNanos, long gcNanos, long mutatorNanos, long pauseGoalNanos, int timeRatio, long chunkSize,
+                        long maximumHeapSize) {
+            final long totalNanos = gcNanos + mutatorNanos;
+            final boolean exceedsTimeRatio = TimeUtils.nanoTimeLessThan(totalNanos, TimeUtils.multiplyOrMaxValue(gcNanos, 1L + timeRatio));
+            /* Round away from the current size, so that steps smaller than a chunk are not lost. */
+            long newYoungSize = youngSize;
+            if (exceedsPauseGoal(averagePauseNanos, pauseGoalNanos)) {
+                newYoungSize = (youngSize - youngSize / SHRINK_DIVISOR) / chunkSize * chunkSize;
+            } else if (exceedsTimeRatio) {
+                newYoungSize = (youngSize + youngSize / GROW_DIVISOR + chunkSize - 1) / chunkSize * chunkSize;
+            }
+            final long minimumYoungSize = chunkSize * MINIMUM_YOUNG_CHUNKS;
+            final long maximumYoungSize = Math.max(minimumYoungSize, maximumHeapSize / MAXIMUM_YOUNG_DIVISOR / chunkSize * chunkSize);
+            return Math.min(Math.max(newYoungSize, minimumYoungSize), maximumYoungSize);
+        }
+    }
 }
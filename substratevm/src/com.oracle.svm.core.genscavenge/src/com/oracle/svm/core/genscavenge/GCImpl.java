@@ -63,8 +63,10 @@ import com.oracle.svm.core.heap.ObjectVisitor;
 import com.oracle.svm.core.hub.LayoutEncoding;
 import com.oracle.svm.core.jdk.RuntimeSupport;
 import com.oracle.svm.core.jdk.SunMiscSupport;
+import com.oracle.svm.core.log.EventRecorder;
 import com.oracle.svm.core.log.Log;
 import com.oracle.svm.core.option.HostedOptionKey;
+import com.oracle.svm.core.option.RuntimeOptionKey;
 import com.oracle.svm.core.os.CommittedMemoryProvider;
 import com.oracle.svm.core.snippets.ImplicitExceptions;
 import com.oracle.svm.core.stack.JavaStackWalker;
@@ -85,6 +87,14 @@ public class GCImpl implements GC {
 
         @Option(help = "How much history to maintain about garbage collections.")//
         public static final HostedOptionKey<Integer> GCHistory = new HostedOptionKey<>(1);
+
+        /**
+         * A complete collection traces the young generation from the roots anyway, so the
+         * preceding incremental collection only shortens the pause of the complete collection if
+         * the heap is short of chunks.
+         */
+        @Option(help = "Collect the young generation incrementally before each complete collection.")//
+        public static final RuntimeOptionKey<Boolean> CollectIncrementallyBeforeCompletely = new RuntimeOptionKey<>(true);
     }
 
     private static final int DECIMALS_IN_TIME_PRINTING = 7;
@@ -295,18 +305,29 @@ public class GCImpl implements GC {
 
             try (Timer ct = collectionTimer.open()) {
                 /*
-                 * Always scavenge the young generation, then maybe scavenge the old generation.
+                 * Usually scavenge the young generation, then maybe scavenge the old generation.
                  * Scavenging the young generation will free up the chunks from the young
                  * generation, so that when the scavenge of the old generation needs chunks it will
                  * find them on the free list.
                  *
+                 * The policies decide based on the accounting of earlier collections, so asking for
+                 * a complete collection before the incremental scavenge gives the same answer. If
+                 * the incremental scavenge is skipped, the complete collection promotes the young
+                 * objects directly, rather than copying them once to promote them and a second
+                 * time to compact the old generation, and it does not walk the dirty cards.
+                 *
+                 * The field completeCollection must only be set for the complete scavenge: the
+                 * incremental scavenge reads it to decide whether to release the old from-space.
                  */
-                if (getPolicy().collectIncrementally()) {
+                final boolean collectCompletely = getPolicy().collectCompletely();
+                completeCollection = false;
+                if (getPolicy().collectIncrementally() && (!collectCompletely || Options.CollectIncrementallyBeforeCompletely.getValue())) {
                     scavenge(true);
                 }
-                completeCollection = getPolicy().collectCompletely();
-                if (completeCollection) {
+                if (collectCompletely) {
+                    completeCollection = true;
                     scavenge(false);
+                    releaseUnusedChunks();
                 }
             }
 
@@ -314,6 +335,9 @@ public class GCImpl implements GC {
         }
 
         getAccounting().afterCollection(completeCollection, collectionTimer);
+        getPolicy().onCollectionEnd(completeCollection);
+        EventRecorder.record(completeCollection ? EventRecorder.Kind.COMPLETE_COLLECTION : EventRecorder.Kind.INCREMENTAL_COLLECTION,
+                        collectionTimer.getStart(), collectionTimer.getLastIntervalNanos(), heap.getUsedChunkBytes().rawValue());
 
         trace.string("  Verify after: ");
         try (Timer vat = verifyAfterTimer.open()) {
@@ -384,6 +408,15 @@ public class GCImpl implements GC {
                 printGCLog.string("K->");
                 printGCLog.unsigned(sizeAfter.unsignedDivide(1024)).string("K, ");
                 printGCLog.rational(collectionTimer.getCollectedNanos(), TimeUtils.nanosPerSecond, DECIMALS_IN_TIME_PRINTING).string(" secs");
+                if (!completeCollection) {
+                    /* Every survivor of an incremental collection is promoted to the old generation. */
+                    final UnsignedWord youngBefore = getAccounting().getYoungChunkBytesBefore();
+                    final UnsignedWord promoted = getAccounting().getLastPromotedUnpinnedChunkBytes();
+                    printGCLog.string(", promoted ").unsigned(promoted.unsignedDivide(1024)).string("K");
+                    if (youngBefore.aboveThan(0)) {
+                        printGCLog.string(" (").rational(promoted.rawValue() * 100, youngBefore.rawValue(), 1).string("% of young)");
+                    }
+                }
 
                 printGCLog.string("]").newline();
             }
@@ -856,6 +889,18 @@ public class GCImpl implements GC {
         trace.string("]").newline();
     }
 
+    /**
+     * Let the policy decide whether unused aligned chunks are returned to the operating system.
+     * Called after complete collections and by the {@link UnusedChunkReleaser}.
+     */
+    void releaseUnusedChunks() {
+        VMOperation.guaranteeInProgress("Releasing unused chunks should be a VMOperation.");
+        final HeapChunkProvider chunkProvider = HeapChunkProvider.get();
+        if (getPolicy().releaseUnusedChunks(chunkProvider.getBytesInUnusedAlignedChunks())) {
+            chunkProvider.freeUnusedAlignedChunks(CollectionPolicy.getUnusedChunkReserve());
+        }
+    }
+
     private void releaseSpaces() {
         final Log trace = Log.noopLog().string("[GCImpl.releaseSpaces:");
         final HeapImpl heap = HeapImpl.getHeapImpl();
@@ -1038,6 +1083,11 @@ public class GCImpl implements GC {
         discoveredReferenceList = newList;
     }
 
+    /** The nanoseconds the mutator has run between collections. */
+    long getMutatorNanos() {
+        return mutatorTimer.getCollectedNanos();
+    }
+
     GreyToBlackObjectVisitor getGreyToBlackObjectVisitor() {
         return greyToBlackObjectVisitor;
     }
@@ -1155,6 +1205,7 @@ public class GCImpl implements GC {
         private UnsignedWord oldChunkBytesAfter;
         private UnsignedWord pinnedChunkBytesBefore;
         private UnsignedWord pinnedChunkBytesAfter;
+        private UnsignedWord lastCompleteCollectionFreedChunkBytes;
         /* History of promotions and copies. */
         private int history;
         private UnsignedWord[] promotedUnpinnedChunkBytes;
@@ -1191,6 +1242,7 @@ public class GCImpl implements GC {
             this.oldChunkBytesAfter = WordFactory.zero();
             this.pinnedChunkBytesBefore = WordFactory.zero();
             this.pinnedChunkBytesAfter = WordFactory.zero();
+            this.lastCompleteCollectionFreedChunkBytes = WordFactory.zero();
             /* Initialize histories. */
             this.promotedUnpinnedChunkBytes = historyFactory(WordFactory.zero());
             this.promotedPinnedChunkBytes = historyFactory(WordFactory.zero());
@@ -1272,6 +1324,21 @@ public class GCImpl implements GC {
             return pinnedObjectBytesAfter;
         }
 
+        /** Bytes freed by the most recent complete collection. */
+        UnsignedWord getLastCompleteCollectionFreedChunkBytes() {
+            return lastCompleteCollectionFreedChunkBytes;
+        }
+
+        /** Bytes in the young generation at the start of the most recent collection. */
+        UnsignedWord getYoungChunkBytesBefore() {
+            return youngChunkBytesBefore;
+        }
+
+        /** Bytes promoted out of the young generation by the most recent incremental collection. */
+        UnsignedWord getLastPromotedUnpinnedChunkBytes() {
+            return getHistoryOf(promotedUnpinnedChunkBytes);
+        }
+
         /** Bytes held in the old generation. */
         UnsignedWord getOldGenerationAfterChunkBytes() {
             return oldChunkBytesAfter.add(pinnedChunkBytesAfter);
@@ -1422,6 +1489,8 @@ public class GCImpl implements GC {
             final Log trace = Log.noopLog().string("[GCImpl.Accounting.afterCompleteCollection:");
             completeCollectionCount += 1;
             afterCollectionCommon();
+            final UnsignedWord beforeChunkBytes = youngChunkBytesBefore.add(oldChunkBytesBefore).add(pinnedChunkBytesBefore);
+            lastCompleteCollectionFreedChunkBytes = beforeChunkBytes.subtract(getOldGenerationAfterChunkBytes());
             /* Complete collections only copy, and they copy everything. */
             setHistoryOf(copiedUnpinnedChunkBytes, oldChunkBytesAfter);
             setHistoryOf(copiedPinnedChunkBytes, pinnedChunkBytesAfter);
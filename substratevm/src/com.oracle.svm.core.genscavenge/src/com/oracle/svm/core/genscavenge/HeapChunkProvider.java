@@ -41,8 +41,11 @@ import com.oracle.svm.core.genscavenge.UnalignedHeapChunk.UnalignedHeader;
 import com.oracle.svm.core.jdk.UninterruptibleUtils;
 import com.oracle.svm.core.log.Log;
 import com.oracle.svm.core.os.CommittedMemoryProvider;
+import com.oracle.svm.core.os.VirtualMemoryProvider;
+import com.oracle.svm.core.os.VirtualMemoryProvider.Access;
 import com.oracle.svm.core.thread.VMThreads;
 import com.oracle.svm.core.util.AtomicUnsigned;
+import com.oracle.svm.core.util.PointerUtils;
 
 /**
  * Allocates and frees the memory for aligned and unaligned heap chunks. The methods are
@@ -111,6 +114,12 @@ class HeapChunkProvider {
         AlignedHeader result = popUnusedAlignedChunk();
         log().string("  unused chunk: ").hex(result).newline();
 
+        if (result.isNonNull() && HeapPolicyOptions.UseNUMALocalChunkReuse.getValue() && !discardObjectMemory(result)) {
+            log().string("  could not recommit unused chunk").newline();
+            freeAlignedChunk(result);
+            result = WordFactory.nullPointer();
+        }
+
         if (result.isNull()) {
             /* Unused list was empty, need to allocate memory. */
             noteFirstAllocationTime();
@@ -170,6 +179,47 @@ class HeapChunkProvider {
         return result;
     }
 
+    /**
+     * Give the physical memory behind the objects of an unused chunk back to the operating system,
+     * so that it is provisioned again, on the NUMA node of the allocating thread, when the objects
+     * are written. The chunk header and its tables are retained. Returns false if the memory could
+     * not be committed again, in which case the chunk must not be used.
+     */
+    private static boolean discardObjectMemory(AlignedHeader chunk) {
+        final UnsignedWord granularity = VirtualMemoryProvider.get().getGranularity();
+        final Pointer start = PointerUtils.roundUp(AlignedHeapChunk.getAlignedHeapChunkStart(chunk), granularity);
+        final Pointer end = chunk.getEnd();
+        if (start.aboveOrEqual(end)) {
+            return true;
+        }
+        final UnsignedWord size = end.subtract(start);
+        if (VirtualMemoryProvider.get().uncommit(start, size) != 0) {
+            /* The memory is still committed, just not discarded. */
+            return true;
+        }
+        return VirtualMemoryProvider.get().commit(start, size, Access.READ | Access.WRITE).isNonNull();
+    }
+
+    UnsignedWord getBytesInUnusedAlignedChunks() {
+        return bytesInUnusedAlignedChunks.get();
+    }
+
+    /**
+     * Return unused aligned chunks to the operating system until at most the given number of bytes
+     * remain in the unused chunk list. Only called in a VMOperation.
+     */
+    void freeUnusedAlignedChunks(UnsignedWord keepBytes) {
+        log().string("[HeapChunkProvider.freeUnusedAlignedChunks  keepBytes: ").unsigned(keepBytes).newline();
+        while (bytesInUnusedAlignedChunks.get().aboveThan(keepBytes)) {
+            AlignedHeader chunk = popUnusedAlignedChunk();
+            if (chunk.isNull()) {
+                break;
+            }
+            freeAlignedChunk(chunk);
+        }
+        log().string("  ]").newline();
+    }
+
     /** Clean a chunk before putting it on a free list. */
     private static void cleanAlignedChunk(AlignedHeader alignedChunk) {
         resetAlignedHeapChunk(alignedChunk);
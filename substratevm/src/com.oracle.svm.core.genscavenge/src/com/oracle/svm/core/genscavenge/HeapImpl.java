@@ -547,6 +547,11 @@ public class HeapImpl extends Heap {
         return memoryMXBean;
     }
 
+    @Override
+    public long getThreadAllocatedMemory(IsolateThread vmThread) {
+        return ThreadLocalAllocation.getAllocatedBytes(vmThread).rawValue();
+    }
+
     /** Return a list of all the classes in the heap. */
     @Override
     public List<Class<?>> getClassList() {
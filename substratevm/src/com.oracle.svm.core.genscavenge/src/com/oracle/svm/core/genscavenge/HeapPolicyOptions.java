@@ -43,6 +43,29 @@ public class HeapPolicyOptions {
     @Option(help = "Bytes that can be allocated before asking what the physical memory size is") //
     public static final HostedOptionKey<Long> AllocationBeforePhysicalMemorySize = new HostedOptionKey<>(1L * 1024L * 1024L);
 
+    /*
+     * A complete collection copies the live objects of the old generation into new chunks before
+     * it releases the old chunks, so the heap temporarily holds two copies of the old generation.
+     * This option only changes when complete collections are triggered; it does not bound the
+     * memory that a complete collection uses.
+     */
+    @Option(help = "Count the copy of the old generation made by a complete collection when deciding whether the heap is full enough for a complete collection.") //
+    public static final RuntimeOptionKey<Boolean> IncludeCopyReserveInMaximumHeapSize = new RuntimeOptionKey<>(false);
+
+    /*
+     * The operating system usually provisions a page on the NUMA node of the thread that first
+     * touches it. Unused aligned chunks keep the pages of their previous use, which might have been
+     * on another node.
+     */
+    @Option(help = "Discard the memory of reused aligned chunks, so that it is provisioned anew on the NUMA node of the allocating thread.") //
+    public static final RuntimeOptionKey<Boolean> UseNUMALocalChunkReuse = new RuntimeOptionKey<>(false);
+
+    @Option(help = "Return unused aligned chunks beyond UnusedChunkReserveSize to the operating system once there have been more of them for this many milliseconds, checked after complete collections and periodically while the application is idle.  0 implies never.") //
+    public static final RuntimeOptionKey<Long> UncommitUnusedChunksDelayMillis = new RuntimeOptionKey<>(0L);
+
+    @Option(help = "The number of bytes in unused aligned chunks that are not returned to the operating system because of UncommitUnusedChunksDelayMillis.") //
+    public static final RuntimeOptionKey<Long> UnusedChunkReserveSize = new RuntimeOptionKey<>(0L);
+
     @Option(help = "The size of an aligned chunk.") //
     public static final HostedOptionKey<Long> AlignedHeapChunkSize = new HostedOptionKey<>(1L * 1024L * 1024L);
 
@@ -95,6 +95,18 @@ public final class ThreadLocalAllocation {
 
         @RawField
         void setAllocationEnd(Pointer end, LocationIdentity endIdentity);
+
+        /**
+         * The number of bytes allocated in this TLAB, not counting the current allocation chunk.
+         * See {@link ThreadLocalAllocation#getAllocatedBytes(Descriptor)}.
+         */
+        @RawField
+        @UniqueLocationIdentity
+        UnsignedWord getAllocatedBytes();
+
+        @RawField
+        @UniqueLocationIdentity
+        void setAllocatedBytes(UnsignedWord value);
     }
 
     public static final LocationIdentity TOP_IDENTITY = NamedLocationIdentity.mutable("Allocator.top");
@@ -278,6 +290,7 @@ public final class ThreadLocalAllocation {
         /* Register the new chunk in the TLAB linked list of unaligned chunks. */
         uChunk.setNext(tlab.getUnalignedChunk());
         tlab.setUnalignedChunk(uChunk);
+        tlab.setAllocatedBytes(tlab.getAllocatedBytes().add(size));
 
         /* Allocate the memory. We must have a chunk, otherwise we already threw an exception. */
         Pointer memory = UnalignedHeapChunk.allocateMemory(uChunk, size);
@@ -557,6 +570,26 @@ public final class ThreadLocalAllocation {
         return tlabUsedMemory;
     }
 
+    /**
+     * Returns the number of bytes that the given thread has allocated so far, in its regular and in
+     * its pinned TLAB, including objects that have since been collected. The value is only
+     * approximate when the thread is allocating concurrently.
+     */
+    public static UnsignedWord getAllocatedBytes(IsolateThread vmThread) {
+        return getAllocatedBytes(regularTLAB.getAddress(vmThread)).add(getAllocatedBytes(pinnedTLAB.getAddress(vmThread)));
+    }
+
+    /** Returns the bytes allocated in the retired chunks plus those in the allocation chunk. */
+    private static UnsignedWord getAllocatedBytes(Descriptor tlab) {
+        UnsignedWord result = tlab.getAllocatedBytes();
+        Pointer allocationTop = tlab.getAllocationTop(TOP_IDENTITY);
+        AlignedHeader alignedChunk = tlab.getAlignedChunk();
+        if (allocationTop.isNonNull() && alignedChunk.isNonNull()) {
+            result = result.add(allocationTop.subtract(HeapChunk.asPointer(alignedChunk)));
+        }
+        return result;
+    }
+
     /**
      * Refill the allocation chunk, i.e.., retire the current allocation chunk (the one in which
      * allocation failed) add a new allocation chunk at the front of the TLAB's aligned chunks.
@@ -607,6 +640,7 @@ public final class ThreadLocalAllocation {
              * and only set in the top aligned chunk when it is retired.
              */
             alignedChunk.setTop(allocationTop);
+            tlab.setAllocatedBytes(tlab.getAllocatedBytes().add(allocationTop.subtract(HeapChunk.asPointer(alignedChunk))));
             tlab.setAllocationTop(WordFactory.nullPointer(), TOP_IDENTITY);
             tlab.setAllocationEnd(WordFactory.nullPointer(), END_IDENTITY);
         }
@@ -622,6 +656,12 @@ public final class ThreadLocalAllocation {
 
         AlignedHeader alignedChunk = tlab.getAlignedChunk();
         if (alignedChunk.isNonNull()) {
+            /*
+             * The chunk may already contain objects, e.g., when allocation resumes after a
+             * suspension. Those were counted when the chunk was retired, so discount them here:
+             * retiring the chunk again adds back only what was allocated in the meantime.
+             */
+            tlab.setAllocatedBytes(tlab.getAllocatedBytes().subtract(alignedChunk.getTop().subtract(HeapChunk.asPointer(alignedChunk))));
             tlab.setAllocationTop(alignedChunk.getTop(), TOP_IDENTITY);
             tlab.setAllocationEnd(alignedChunk.getEnd(), END_IDENTITY);
             alignedChunk.setTop(WordFactory.nullPointer());
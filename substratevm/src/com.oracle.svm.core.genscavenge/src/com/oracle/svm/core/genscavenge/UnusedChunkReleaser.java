@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.core.genscavenge;
+
+import org.graalvm.nativeimage.Feature;
+
+import com.oracle.svm.core.SubstrateOptions;
+import com.oracle.svm.core.annotate.AutomaticFeature;
+import com.oracle.svm.core.jdk.RuntimeSupport;
+import com.oracle.svm.core.thread.VMOperation;
+
+/**
+ * A daemon thread that returns unused aligned chunks to the operating system while the application
+ * is idle. Without it, unused chunks are only released after complete collections, which an idle
+ * application never does. Every {@link HeapPolicyOptions#UncommitUnusedChunksDelayMillis}, the
+ * thread checks whether there are more unused chunk bytes than
+ * {@link HeapPolicyOptions#UnusedChunkReserveSize}, and if so asks the collection policy in a
+ * VMOperation, so that the chunks are not freed while a collection or an allocation uses them.
+ *
+ * The thread is started by a startup hook, so it only runs in executables.
+ */
+final class UnusedChunkReleaser implements Runnable {
+
+    static void startIfEnabled() {
+        if (SubstrateOptions.MultiThreaded.getValue() && HeapPolicyOptions.UncommitUnusedChunksDelayMillis.getValue() > 0L) {
+            final Thread thread = new Thread(new UnusedChunkReleaser(), "Unused chunk releaser");
+            thread.setDaemon(true);
+            thread.start();
+            RuntimeSupport.getRuntimeSupport().addTearDownHook(thread::interrupt);
+        }
+    }
+
+    @Override
+    public void run() {
+        final long delayMillis = HeapPolicyOptions.UncommitUnusedChunksDelayMillis.getValue();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(delayMillis);
+                if (HeapChunkProvider.get().getBytesInUnusedAlignedChunks().aboveThan(CollectionPolicy.getUnusedChunkReserve())) {
+                    VMOperation.enqueueBlockingSafepoint("Release unused chunks", () -> HeapImpl.getHeapImpl().getGCImpl().releaseUnusedChunks());
+                }
+            }
+        } catch (InterruptedException e) {
+            /* The isolate is being torn down. */
+        }
+    }
+}
+
+@AutomaticFeature
+class UnusedChunkReleaserFeature implements Feature {
+
+    @Override
+    public boolean isInConfiguration(IsInConfigurationAccess access) {
+        return HeapOptions.UseCardRememberedSetHeap.getValue();
+    }
+
+    @Override
+    public void beforeAnalysis(BeforeAnalysisAccess access) {
+        RuntimeSupport.getRuntimeSupport().addStartupHook(UnusedChunkReleaser::startIfEnabled);
+    }
+}
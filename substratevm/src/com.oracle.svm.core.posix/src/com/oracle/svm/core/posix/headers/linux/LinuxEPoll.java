@@ -27,6 +27,7 @@ package com.oracle.svm.core.posix.headers.linux;
 import org.graalvm.nativeimage.Platform;
 import org.graalvm.nativeimage.Platforms;
 import org.graalvm.nativeimage.c.CContext;
+import org.graalvm.nativeimage.c.constant.CConstant;
 import org.graalvm.nativeimage.c.function.CFunction;
 import org.graalvm.nativeimage.c.struct.CField;
 import org.graalvm.nativeimage.c.struct.CFieldAddress;
@@ -108,9 +109,15 @@ public class LinuxEPoll {
         }
     }
 
+    @CConstant
+    public static native int EPOLL_CLOEXEC();
+
     @CFunction
     public static native int epoll_create(int size);
 
+    @CFunction
+    public static native int epoll_create1(int flags);
+
     @CFunction
     public static native int epoll_ctl(int epfd, int op, int fd, epoll_event event);
 
@@ -40,11 +40,13 @@ import static com.oracle.svm.core.posix.headers.Unistd.NoTransitions.close;
 import static com.oracle.svm.core.posix.linux.ProcFSSupport.findMapping;
 import static com.oracle.svm.core.util.PointerUtils.roundUp;
 import static com.oracle.svm.core.util.UnsignedUtils.isAMultiple;
+import static org.graalvm.word.WordFactory.nullPointer;
 import static org.graalvm.word.WordFactory.signed;
 import static org.graalvm.word.WordFactory.unsigned;
 
 import com.oracle.svm.core.posix.PosixUtils;
 import org.graalvm.compiler.nodes.extended.MembarNode;
+import org.graalvm.compiler.options.Option;
 import org.graalvm.compiler.word.Word;
 import org.graalvm.nativeimage.Feature;
 import org.graalvm.nativeimage.ImageSingletons;
@@ -68,6 +70,7 @@ import com.oracle.svm.core.annotate.Uninterruptible;
 import com.oracle.svm.core.c.CGlobalData;
 import com.oracle.svm.core.c.CGlobalDataFactory;
 import com.oracle.svm.core.c.function.CEntryPointErrors;
+import com.oracle.svm.core.option.HostedOptionKey;
 import com.oracle.svm.core.os.ImageHeapProvider;
 import com.oracle.svm.core.os.VirtualMemoryProvider;
 import com.oracle.svm.core.os.VirtualMemoryProvider.Access;
@@ -104,6 +107,11 @@ class LinuxImageHeapProviderFeature implements Feature {
  * strictly required.
  */
 public class LinuxImageHeapProvider implements ImageHeapProvider {
+    public static class Options {
+        @Option(help = "Keep the image heap mapping of a torn-down isolate for the next isolate, which then only needs to remap the writable part of the image heap.")//
+        public static final HostedOptionKey<Boolean> ReuseIsolateImageHeap = new HostedOptionKey<>(false);
+    }
+
     private static final CGlobalData<CCharPointer> PROC_SELF_MAPS = CGlobalDataFactory.createCString("/proc/self/maps");
     private static final CGlobalData<CCharPointer> PROC_VERSION = CGlobalDataFactory.createCString("/proc/version");
     private static final CGlobalData<CCharPointer> PROC_VERSION_WSL_SUBSTRING = CGlobalDataFactory.createCString("Microsoft");
@@ -112,6 +120,8 @@ public class LinuxImageHeapProvider implements ImageHeapProvider {
     private static final SignedWord UNASSIGNED_FD = signed(-1);
     private static final CGlobalData<WordPointer> CACHED_IMAGE_FD = CGlobalDataFactory.createWord(FIRST_ISOLATE_FD);
     private static final CGlobalData<WordPointer> CACHED_IMAGE_HEAP_OFFSET = CGlobalDataFactory.createWord();
+    /** The image heap mapping of a torn-down isolate, already reset for reuse, or null. */
+    private static final CGlobalData<WordPointer> POOLED_IMAGE_HEAP = CGlobalDataFactory.createWord();
 
     private static final int MAX_PATHLEN = 4096;
 
@@ -150,6 +160,16 @@ public class LinuxImageHeapProvider implements ImageHeapProvider {
             }
             fd = previous;
         }
+        if (begin.isNull() && Options.ReuseIsolateImageHeap.getValue()) {
+            Pointer pooled = POOLED_IMAGE_HEAP.get().read();
+            if (pooled.isNonNull() && ((Pointer) POOLED_IMAGE_HEAP.get()).compareAndSwapWord(0, pooled, nullPointer(), LocationIdentity.ANY_LOCATION).equal(pooled)) {
+                basePointer.write(pooled);
+                if (endPointer.isNonNull()) {
+                    endPointer.write(roundUp(pooled.add(imageHeapSize), pageSize));
+                }
+                return CEntryPointErrors.NO_ERROR;
+            }
+        }
         if (UNASSIGNED_FD.equal(fd) || (begin.isNonNull() && fd.equal(FIRST_ISOLATE_FD))) {
             /*
              * Locate the backing file of the image heap. Unfortunately, we must open the file by
@@ -296,6 +316,12 @@ public class LinuxImageHeapProvider implements ImageHeapProvider {
                 return CEntryPointErrors.MAP_HEAP_FAILED;
             }
         } else {
+            if (Options.ReuseIsolateImageHeap.getValue() && POOLED_IMAGE_HEAP.get().read().isNull() && resetForReuse((Pointer) heapBase)) {
+                Pointer previous = ((Pointer) POOLED_IMAGE_HEAP.get()).compareAndSwapWord(0, nullPointer(), heapBase, LocationIdentity.ANY_LOCATION);
+                if (previous.isNull()) {
+                    return CEntryPointErrors.NO_ERROR;
+                }
+            }
             Word size = IMAGE_HEAP_END.get().subtract(IMAGE_HEAP_BEGIN.get());
             if (VirtualMemoryProvider.get().free(heapBase, size) != 0) {
                 return CEntryPointErrors.MAP_HEAP_FAILED;
@@ -303,4 +329,27 @@ public class LinuxImageHeapProvider implements ImageHeapProvider {
         }
         return CEntryPointErrors.NO_ERROR;
     }
+
+    /**
+     * Discards the modifications of an isolate to the writable part of its image heap by mapping
+     * that part from the image file again. The read-only part, including relocated pointers that
+     * were copied in, is never written and can be kept as it is.
+     */
+    @Uninterruptible(reason = "Called during isolate tear-down.")
+    private static boolean resetForReuse(Pointer heapBase) {
+        SignedWord fd = CACHED_IMAGE_FD.get().read();
+        if (fd.equal(FIRST_ISOLATE_FD) || fd.equal(UNASSIGNED_FD)) {
+            return false;
+        }
+        UnsignedWord pageSize = VirtualMemoryProvider.get().getGranularity();
+        UnsignedWord writableOffset = IMAGE_HEAP_WRITABLE_BEGIN.get().subtract(IMAGE_HEAP_BEGIN.get());
+        if (!isAMultiple(writableOffset, pageSize)) {
+            return false;
+        }
+        UnsignedWord writableSize = IMAGE_HEAP_END.get().subtract(IMAGE_HEAP_WRITABLE_BEGIN.get());
+        UnsignedWord fileOffset = CACHED_IMAGE_HEAP_OFFSET.get().read();
+        Pointer writableBegin = heapBase.add(writableOffset);
+        Pointer mapped = VirtualMemoryProvider.get().mapFile(writableBegin, writableSize, fd, fileOffset.add(writableOffset), Access.READ | Access.WRITE);
+        return mapped.equal(writableBegin);
+    }
 }
@@ -37,6 +37,7 @@ import org.graalvm.nativeimage.c.type.CCharPointer;
 import org.graalvm.nativeimage.c.type.CIntPointer;
 import org.graalvm.word.WordFactory;
 
+import com.oracle.svm.core.annotate.Alias;
 import com.oracle.svm.core.annotate.AutomaticFeature;
 import com.oracle.svm.core.annotate.Substitute;
 import com.oracle.svm.core.annotate.TargetClass;
@@ -48,7 +49,6 @@ import com.oracle.svm.core.posix.headers.Socket;
 import com.oracle.svm.core.posix.headers.Time;
 import com.oracle.svm.core.posix.headers.Unistd;
 import com.oracle.svm.core.posix.headers.linux.LinuxEPoll;
-import com.oracle.svm.core.util.VMError;
 
 @Platforms({Platform.LINUX.class})
 public final class LinuxNIOSubstitutions {
@@ -57,6 +57,13 @@ public final class LinuxNIOSubstitutions {
     private LinuxNIOSubstitutions() {
     }
 
+    @Platforms({Platform.LINUX.class})
+    @TargetClass(className = "sun.nio.ch.IOStatus")
+    static final class Target_sun_nio_ch_IOStatus {
+        @Alias @TargetElement(name = "INTERRUPTED")//
+        protected static int IOS_INTERRUPTED;
+    }
+
     /* { Do not reformat commented-out code: @formatter:off */
     /** Translations of jdk/src/solaris/native/sun/nio/ch/EPoll.c?v=Java_1.8.0_40_b10. */
     @Platforms({Platform.LINUX.class})
@@ -112,12 +119,24 @@ public final class LinuxNIOSubstitutions {
         }
         /* } Do not reformat commented-out code: @formatter:on */
 
+        /* { Do not reformat commented-out code: @formatter:off */
+        /* Translation of jdk/src/java.base/linux/native/libnio/ch/EPoll.c?v=Java_11. */
+        // 053 JNIEXPORT jint JNICALL
+        // 054 Java_sun_nio_ch_EPoll_create(JNIEnv *env, jclass clazz) {
         @Substitute //
         @TargetElement(onlyWith = JDK9OrLater.class) //
-        @SuppressWarnings({"unused"})
         static int create() throws IOException {
-            throw VMError.unsupportedFeature("LinuxNIOSubstitutions.Target_sun_nio_ch_EPoll.create");
+            // 055     int epfd = epoll_create1(EPOLL_CLOEXEC);
+            int epfd = LinuxEPoll.epoll_create1(LinuxEPoll.EPOLL_CLOEXEC());
+            // 056     if (epfd < 0) {
+            if (epfd < 0) {
+                // 057         JNU_ThrowIOExceptionWithLastError(env, "epoll_create1 failed");
+                throw new IOException("epoll_create1 failed");
+            }
+            // 059     return epfd;
+            return epfd;
         }
+        /* } Do not reformat commented-out code: @formatter:on */
 
         /* { Do not reformat commented-out code: @formatter:off */
         // 070 JNIEXPORT jint JNICALL
@@ -146,12 +165,26 @@ public final class LinuxNIOSubstitutions {
         }
         /* } Do not reformat commented-out code: @formatter:on */
 
+        /* { Do not reformat commented-out code: @formatter:off */
+        // 062 JNIEXPORT jint JNICALL
+        // 063 Java_sun_nio_ch_EPoll_ctl(JNIEnv *env, jclass clazz, jint epfd,
+        // 064                           jint opcode, jint fd, jint events)
+        // 065 {
         @Substitute //
         @TargetElement(onlyWith = JDK9OrLater.class) //
-        @SuppressWarnings({"unused"})
         static int ctl(int epfd, int opcode, int fd, int events) {
-            throw VMError.unsupportedFeature("LinuxNIOSubstitutions.Target_sun_nio_ch_EPoll.ctl");
+            // 066     struct epoll_event event;
+            LinuxEPoll.epoll_event event = StackValue.get(LinuxEPoll.epoll_event.class);
+            // 069     event.events = events;
+            event.events(events);
+            // 070     event.data.fd = fd;
+            event.addressOfdata().fd(fd);
+            // 072     res = epoll_ctl(epfd, (int)opcode, (int)fd, &event);
+            int res = LinuxEPoll.epoll_ctl(epfd, opcode, fd, event);
+            // 073     return (res == 0) ? 0 : errno;
+            return (res == 0) ? 0 : Errno.errno();
         }
+        /* } Do not reformat commented-out code: @formatter:on */
 
         /* { Do not reformat commented-out code: @formatter:off */
         // 085 JNIEXPORT jint JNICALL
@@ -180,12 +213,32 @@ public final class LinuxNIOSubstitutions {
         }
         /* } Do not reformat commented-out code: @formatter:on */
 
+        /* { Do not reformat commented-out code: @formatter:off */
+        // 076 JNIEXPORT jint JNICALL
+        // 077 Java_sun_nio_ch_EPoll_wait(JNIEnv *env, jclass clazz, jint epfd,
+        // 078                            jlong address, jint numfds, jint timeout)
+        // 079 {
         @Substitute //
         @TargetElement(onlyWith = JDK9OrLater.class) //
-        @SuppressWarnings({"unused"})
         static int wait(int epfd, long address, int numfds, int timeout) throws IOException {
-            throw VMError.unsupportedFeature("LinuxNIOSubstitutions.Target_sun_nio_ch_EPoll.wait");
+            // 080     struct epoll_event *events = jlong_to_ptr(address);
+            LinuxEPoll.epoll_event events = WordFactory.pointer(address);
+            // 081     int res = epoll_wait(epfd, events, numfds, timeout);
+            int res = LinuxEPoll.epoll_wait(epfd, events, numfds, timeout);
+            // 082     if (res < 0) {
+            if (res < 0) {
+                // 083         if (errno == EINTR) {
+                if (Errno.errno() == Errno.EINTR()) {
+                    // 084             return IOS_INTERRUPTED;
+                    return Target_sun_nio_ch_IOStatus.IOS_INTERRUPTED;
+                }
+                // 086             JNU_ThrowIOExceptionWithLastError(env, "epoll_wait failed");
+                throw new IOException("epoll_wait failed");
+            }
+            // 090     return res;
+            return res;
         }
+        /* } Do not reformat commented-out code: @formatter:on */
 
         /* This method appears in EPoll.c, but is not declared in EPoll.java. */
         /* { Do not reformat commented-out code: @formatter:off */
@@ -36,12 +36,15 @@ import org.graalvm.compiler.word.BarrieredAccess;
 import org.graalvm.compiler.word.Word;
 import org.graalvm.nativeimage.Feature;
 import org.graalvm.nativeimage.ImageSingletons;
+import org.graalvm.nativeimage.Platform;
+import org.graalvm.nativeimage.Platforms;
 
 import com.oracle.svm.core.annotate.Alias;
 import com.oracle.svm.core.annotate.AutomaticFeature;
 import com.oracle.svm.core.annotate.TargetClass;
 import com.oracle.svm.core.heap.ObjectHeader;
 import com.oracle.svm.core.hub.DynamicHub;
+import com.oracle.svm.core.log.EventRecorder;
 import com.oracle.svm.core.snippets.KnownIntrinsics;
 import com.oracle.svm.core.snippets.SubstrateForeignCallTarget;
 import com.oracle.svm.core.thread.ThreadingSupportImpl.PauseRecurringCallback;
@@ -67,7 +70,8 @@ import sun.misc.Unsafe;
  * UniverseBuilder.canHaveMonitorFields(AnalysisType) for details.
  * <p>
  * Synchronization on {@link String}, arrays, and other types not detected by the static analysis
- * (like synchronization via JNI) fall back to a monitor stored in {@link #additionalMonitors}.
+ * (like synchronization via JNI) fall back to a monitor stored in {@link #additionalMonitors},
+ * which is striped by identity hash code so that unrelated objects do not contend on one lock.
  * <p>
  * Because so few objects are receivers of {@link #wait()} and {@link #notify()} calls[citation
  * needed], condition variables for those objects are kept in {@link #additionalConditions}.
@@ -75,21 +79,48 @@ import sun.misc.Unsafe;
 public class MonitorSupport {
 
     private static final Unsafe UNSAFE = GraalUnsafeAccess.getUnsafe();
+
     /**
-     * Secondary storage for monitor slots.
-     *
-     * Synchronized to prevent concurrent access and modification.
+     * The number of independently locked stripes of the secondary storage. Must be a power of 2.
      */
-    private final Map<Object, ReentrantLock> additionalMonitors = new WeakIdentityHashMap<>();
-    private final ReentrantLock additionalMonitorsLock = new ReentrantLock();
+    private static final int ADDITIONAL_STORAGE_STRIPES = 32;
 
     /**
-     * Secondary storage for condition variable slots.
+     * Secondary storage for monitor slots, striped by identity hash code.
      *
-     * Synchronized to prevent concurrent access and modification.
+     * Each stripe is synchronized by the lock with the same index in
+     * {@link #additionalMonitorsLocks} to prevent concurrent access and modification, so that
+     * threads synchronizing on unrelated objects do not serialize on a single lock.
+     */
+    private final Map<Object, ReentrantLock>[] additionalMonitors;
+    private final ReentrantLock[] additionalMonitorsLocks;
+
+    /**
+     * Secondary storage for condition variable slots, striped like {@link #additionalMonitors}.
      */
-    private final Map<Object, Condition> additionalConditions = new WeakIdentityHashMap<>();
-    private final ReentrantLock additionalConditionsLock = new ReentrantLock();
+    private final Map<Object, Condition>[] additionalConditions;
+    private final ReentrantLock[] additionalConditionsLocks;
+
+    @Platforms(Platform.HOSTED_ONLY.class)
+    @SuppressWarnings("unchecked")
+    MonitorSupport() {
+        additionalMonitors = new Map[ADDITIONAL_STORAGE_STRIPES];
+        additionalMonitorsLocks = new ReentrantLock[ADDITIONAL_STORAGE_STRIPES];
+        additionalConditions = new Map[ADDITIONAL_STORAGE_STRIPES];
+        additionalConditionsLocks = new ReentrantLock[ADDITIONAL_STORAGE_STRIPES];
+        for (int i = 0; i < ADDITIONAL_STORAGE_STRIPES; i++) {
+            additionalMonitors[i] = new WeakIdentityHashMap<>();
+            additionalMonitorsLocks[i] = new ReentrantLock();
+            additionalConditions[i] = new WeakIdentityHashMap<>();
+            additionalConditionsLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /** Select the stripe of the secondary storage that holds the slots of an object. */
+    private static int additionalStorageStripe(Object obj) {
+        final int hash = System.identityHashCode(obj);
+        return (hash ^ (hash >>> 16)) & (ADDITIONAL_STORAGE_STRIPES - 1);
+    }
 
     /**
      * Implements the monitorenter bytecode. The null check for the parameter must have already been
@@ -110,7 +141,11 @@ public class MonitorSupport {
         try (PauseRecurringCallback prc = new PauseRecurringCallback()) {
             try {
                 lockObject = ImageSingletons.lookup(MonitorSupport.class).getOrCreateMonitor(obj, true);
-                lockObject.lock();
+                if (!lockObject.tryLock()) {
+                    long startNanos = System.nanoTime();
+                    lockObject.lock();
+                    EventRecorder.record(EventRecorder.Kind.CONTENDED_MONITOR_ENTER, startNanos, System.nanoTime() - startNanos, 0L);
+                }
             } catch (Throwable ex) {
                 /*
                  * The foreign call from snippets to this method does not have an exception edge. So
@@ -333,12 +368,15 @@ public class MonitorSupport {
         } else {
             /* No memory reserved for a lock in the object, fall back to our secondary storage. */
             /*
-             * Lock the monitor map and maybe add a monitor for this object. This serialization
-             * might be a scalability problem.
+             * Lock the stripe of the monitor map for this object and maybe add a monitor for this
+             * object. Only objects that hash to the same stripe serialize here.
              */
-            additionalMonitorsLock.lock();
+            final int stripe = additionalStorageStripe(obj);
+            final Map<Object, ReentrantLock> monitors = additionalMonitors[stripe];
+            final ReentrantLock monitorsLock = additionalMonitorsLocks[stripe];
+            monitorsLock.lock();
             try {
-                final ReentrantLock existingEntry = additionalMonitors.get(obj);
+                final ReentrantLock existingEntry = monitors.get(obj);
                 if (existingEntry != null) {
                     return existingEntry;
                 }
@@ -347,11 +385,11 @@ public class MonitorSupport {
                     return null;
                 }
                 final ReentrantLock newEntry = new ReentrantLock();
-                final ReentrantLock previousEntry = additionalMonitors.put(obj, newEntry);
+                final ReentrantLock previousEntry = monitors.put(obj, newEntry);
                 VMError.guarantee(previousEntry == null, "MonitorSupport.getOrCreateMonitor: Replaced monitor");
                 return newEntry;
             } finally {
-                additionalMonitorsLock.unlock();
+                monitorsLock.unlock();
             }
         }
     }
@@ -363,12 +401,15 @@ public class MonitorSupport {
     private Condition getOrCreateCondition(Object obj, ReentrantLock lock, boolean createIfNotExisting) {
         /* No memory reserved for a condition in the object, use secondary storage. */
         /*
-         * Lock the condition map and maybe add a condition for this object. This serialization
-         * might be a scalability problem.
+         * Lock the stripe of the condition map for this object and maybe add a condition for this
+         * object.
          */
-        additionalConditionsLock.lock();
+        final int stripe = additionalStorageStripe(obj);
+        final Map<Object, Condition> conditions = additionalConditions[stripe];
+        final ReentrantLock conditionsLock = additionalConditionsLocks[stripe];
+        conditionsLock.lock();
         try {
-            final Condition existingEntry = additionalConditions.get(obj);
+            final Condition existingEntry = conditions.get(obj);
             if (existingEntry != null) {
                 return existingEntry;
             }
@@ -377,11 +418,11 @@ public class MonitorSupport {
                 return null;
             }
             final Condition newEntry = lock.newCondition();
-            final Condition previousEntry = additionalConditions.put(obj, newEntry);
+            final Condition previousEntry = conditions.put(obj, newEntry);
             VMError.guarantee(previousEntry == null, "MonitorSupport.getOrCreateCondition: Replaced condition");
             return newEntry;
         } finally {
-            additionalConditionsLock.unlock();
+            conditionsLock.unlock();
         }
     }
 }
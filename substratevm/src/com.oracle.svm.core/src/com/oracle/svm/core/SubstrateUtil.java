@@ -68,6 +68,7 @@ import com.oracle.svm.core.code.CodeInfoTable;
 import com.oracle.svm.core.deopt.DeoptimizationSupport;
 import com.oracle.svm.core.deopt.DeoptimizedFrame;
 import com.oracle.svm.core.deopt.Deoptimizer;
+import com.oracle.svm.core.log.EventRecorder;
 import com.oracle.svm.core.log.Log;
 import com.oracle.svm.core.snippets.KnownIntrinsics;
 import com.oracle.svm.core.stack.JavaFrameAnchor;
@@ -267,6 +268,12 @@ public class SubstrateUtil {
             dumpException(log, "dumpRecentVMOperations", e);
         }
 
+        try {
+            dumpRecentEvents(log);
+        } catch (Exception e) {
+            dumpException(log, "dumpRecentEvents", e);
+        }
+
         dumpRuntimeCompilation(log);
 
         try {
@@ -410,6 +417,14 @@ public class SubstrateUtil {
         log.indent(false);
     }
 
+    @NeverInline("catch implicit exceptions")
+    private static void dumpRecentEvents(Log log) {
+        log.string("Event dump:").newline();
+        log.indent(true);
+        EventRecorder.logRecentEvents(log);
+        log.indent(false);
+    }
+
     static void dumpRuntimeCompilation(Log log) {
         if (DeoptimizationSupport.enabled()) {
             log.newline().string("RuntimeCodeCache dump:").newline();
@@ -43,6 +43,7 @@ import com.oracle.svm.core.annotate.AutomaticFeature;
 import com.oracle.svm.core.annotate.NeverInline;
 import com.oracle.svm.core.deopt.DeoptimizationSupport;
 import com.oracle.svm.core.jdk.RuntimeSupport;
+import com.oracle.svm.core.log.EventRecorder;
 import com.oracle.svm.core.log.Log;
 import com.oracle.svm.core.option.HostedOptionKey;
 import com.oracle.svm.core.stack.JavaStackWalker;
@@ -106,6 +107,7 @@ class DumpAllStacks implements SignalHandler {
                     log.string(e.getMessage()).newline();
                 }
             }
+            EventRecorder.logRecentEvents(log);
             log.flush();
         });
     }
@@ -118,8 +118,8 @@ public final class ThreadLocalHandles<T extends ObjectHandle> {
     public void ensureCapacity(int capacity) {
         if (top + capacity >= objects.length) {
             Object[] oldArray = objects;
-            int newLength = oldArray.length * 2;
-            assert newLength >= top + capacity;
+            /* Grow at least geometrically, but also satisfy large explicit capacity requests. */
+            int newLength = Math.max(oldArray.length * 2, top + capacity + 1);
             objects = new Object[newLength];
             System.arraycopy(oldArray, 0, objects, 0, oldArray.length);
         }
@@ -93,6 +93,12 @@ public abstract class Heap {
     /** Get the MemoryMXBean for this heap. */
     public abstract MemoryMXBean getMemoryMXBean();
 
+    /**
+     * Return the number of bytes allocated so far by the given thread, with the semantics of
+     * {@code com.sun.management.ThreadMXBean#getThreadAllocatedBytes}.
+     */
+    public abstract long getThreadAllocatedMemory(IsolateThread vmThread);
+
     /** Tear down the heap, return all allocated virtual memory chunks to VirtualMemoryProvider. */
     public abstract void tearDown();
 }
@@ -50,16 +50,21 @@ import javax.management.MBeanServerConnection;
 import javax.management.ObjectName;
 
 import org.graalvm.compiler.serviceprovider.GraalServices;
+import org.graalvm.nativeimage.CurrentIsolate;
 import org.graalvm.nativeimage.Feature;
 import org.graalvm.nativeimage.ImageSingletons;
+import org.graalvm.nativeimage.IsolateThread;
 import org.graalvm.nativeimage.ProcessProperties;
 
 import com.oracle.svm.core.JavaMainWrapper.JavaMainSupport;
+import com.oracle.svm.core.SubstrateOptions;
 import com.oracle.svm.core.annotate.AutomaticFeature;
 import com.oracle.svm.core.annotate.Substitute;
 import com.oracle.svm.core.annotate.TargetClass;
 import com.oracle.svm.core.heap.Heap;
+import com.oracle.svm.core.locks.VMMutex;
 import com.oracle.svm.core.thread.JavaThreads;
+import com.oracle.svm.core.thread.VMThreads;
 import com.oracle.svm.core.util.UserError;
 import com.oracle.svm.core.util.VMError;
 
@@ -371,12 +376,12 @@ final class SubstrateThreadMXBean implements com.sun.management.ThreadMXBean {
 
     @Override
     public boolean isThreadAllocatedMemoryEnabled() {
-        return false;
+        return true;
     }
 
     @Override
     public boolean isThreadAllocatedMemorySupported() {
-        return false;
+        return true;
     }
 
     @Override
@@ -516,13 +521,36 @@ final class SubstrateThreadMXBean implements com.sun.management.ThreadMXBean {
     }
 
     @Override
-    public long getThreadAllocatedBytes(long arg0) {
-        throw VMError.unsupportedFeature(MSG);
+    @SuppressWarnings("try")
+    public long getThreadAllocatedBytes(long id) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Invalid thread ID parameter: " + id);
+        }
+        if (id == Thread.currentThread().getId()) {
+            return Heap.getHeap().getThreadAllocatedMemory(CurrentIsolate.getCurrentThread());
+        }
+        if (!SubstrateOptions.MultiThreaded.getValue()) {
+            return -1;
+        }
+        try (VMMutex ignored = VMThreads.THREAD_MUTEX.lock()) {
+            for (IsolateThread vmThread = VMThreads.firstThread(); VMThreads.isNonNullThread(vmThread); vmThread = VMThreads.nextThread(vmThread)) {
+                Thread thread = JavaThreads.singleton().fromVMThread(vmThread);
+                if (thread != null && thread.getId() == id) {
+                    return Heap.getHeap().getThreadAllocatedMemory(vmThread);
+                }
+            }
+        }
+        /* Like on HotSpot, -1 means that the thread is not alive. */
+        return -1;
     }
 
     @Override
-    public long[] getThreadAllocatedBytes(long[] arg0) {
-        throw VMError.unsupportedFeature(MSG);
+    public long[] getThreadAllocatedBytes(long[] ids) {
+        long[] result = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            result[i] = getThreadAllocatedBytes(ids[i]);
+        }
+        return result;
     }
 
     @Override
@@ -536,8 +564,8 @@ final class SubstrateThreadMXBean implements com.sun.management.ThreadMXBean {
     }
 
     @Override
-    public void setThreadAllocatedMemoryEnabled(boolean arg0) {
-        throw VMError.unsupportedFeature(MSG);
+    public void setThreadAllocatedMemoryEnabled(boolean enable) {
+        /* Allocated bytes are always counted, as part of the TLAB bookkeeping. */
     }
 }
 
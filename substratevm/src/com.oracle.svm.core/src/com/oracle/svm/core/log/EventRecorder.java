@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.core.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.graalvm.compiler.api.replacements.Fold;
+import org.graalvm.compiler.options.Option;
+import org.graalvm.nativeimage.Feature;
+import org.graalvm.nativeimage.ImageSingletons;
+import org.graalvm.nativeimage.Platform;
+import org.graalvm.nativeimage.Platforms;
+
+import com.oracle.svm.core.annotate.AutomaticFeature;
+import com.oracle.svm.core.option.HostedOptionKey;
+
+/**
+ * Records the most recent VM events, such as safepoints, garbage collections and contended monitor
+ * entries, so that latency spikes can be explained after the fact. Events are written into arrays
+ * that are allocated during image generation, so recording does not allocate and is cheap enough
+ * to be always on. The recorded events are printed with the diagnostics of a fatal error and with
+ * the thread dump of VM inspection.
+ */
+public final class EventRecorder {
+
+    public static class Options {
+        @Option(help = "The number of recent VM events, such as safepoints, garbage collections and contended monitor entries, that are kept for diagnostics.  0 disables recording.")//
+        public static final HostedOptionKey<Integer> RecentEventCount = new HostedOptionKey<>(256);
+    }
+
+    public enum Kind {
+        SAFEPOINT("Safepoint", "time to safepoint (ns)"),
+        INCREMENTAL_COLLECTION("Incremental GC", "used bytes after"),
+        COMPLETE_COLLECTION("Complete GC", "used bytes after"),
+        CONTENDED_MONITOR_ENTER("Contended monitor enter", null);
+
+        private final String description;
+        /** What the value of an event of this kind means, or null if it has no value. */
+        private final String valueName;
+
+        Kind(String description, String valueName) {
+            this.description = description;
+            this.valueName = valueName;
+        }
+    }
+
+    /** The values of {@link Kind}, cached so that printing does not allocate. */
+    private static final Kind[] KINDS = Kind.values();
+
+    private final int[] kinds;
+    private final long[] startNanos;
+    private final long[] durationNanos;
+    private final long[] values;
+
+    /** The number of events recorded so far. The next event goes into the slot of this modulo. */
+    private final AtomicLong count;
+
+    @Platforms(Platform.HOSTED_ONLY.class)
+    EventRecorder(int capacity) {
+        this.kinds = new int[capacity];
+        this.startNanos = new long[capacity];
+        this.durationNanos = new long[capacity];
+        this.values = new long[capacity];
+        this.count = new AtomicLong();
+    }
+
+    @Fold
+    static EventRecorder singleton() {
+        return ImageSingletons.lookup(EventRecorder.class);
+    }
+
+    @Fold
+    public static boolean isEnabled() {
+        return Options.RecentEventCount.getValue() > 0;
+    }
+
+    /**
+     * Record an event that started at {@code startNanos}, as returned by {@link System#nanoTime()},
+     * and took {@code durationNanos}. Concurrent events are recorded without locking, so a slot that
+     * is being overwritten might be printed with a mix of an old and a new event.
+     */
+    public static void record(Kind kind, long startNanos, long durationNanos, long value) {
+        if (isEnabled()) {
+            singleton().append(kind, startNanos, durationNanos, value);
+        }
+    }
+
+    private void append(Kind kind, long start, long duration, long value) {
+        int slot = (int) (count.getAndIncrement() % kinds.length);
+        kinds[slot] = kind.ordinal();
+        startNanos[slot] = start;
+        durationNanos[slot] = duration;
+        values[slot] = value;
+    }
+
+    /** Print the recorded events, oldest first. */
+    public static void logRecentEvents(Log log) {
+        log.string("== [Recent VM events: ").newline();
+        if (isEnabled()) {
+            singleton().log(log);
+        }
+        log.string("]").newline();
+    }
+
+    private void log(Log log) {
+        long end = count.get();
+        long first = Math.max(0L, end - kinds.length);
+        for (long i = first; i < end; i++) {
+            int slot = (int) (i % kinds.length);
+            Kind kind = KINDS[kinds[slot]];
+            log.string("  ").string(kind.description)
+                            .string("  start: ").signed(startNanos[slot]).string(" ns")
+                            .string("  duration: ").signed(durationNanos[slot]).string(" ns");
+            if (kind.valueName != null) {
+                log.string("  ").string(kind.valueName).string(": ").signed(values[slot]);
+            }
+            log.newline();
+        }
+    }
+}
+
+@AutomaticFeature
+class EventRecorderFeature implements Feature {
+    @Override
+    public void afterRegistration(AfterRegistrationAccess access) {
+        ImageSingletons.add(EventRecorder.class, new EventRecorder(Math.max(0, EventRecorder.Options.RecentEventCount.getValue())));
+    }
+}
@@ -468,6 +468,15 @@ public final class Safepoint {
          */
         private volatile IsolateThread requestingThread;
 
+        /*
+         * Time-to-safepoint metrics, i.e., how long it took from requesting a safepoint until all
+         * threads stopped. Only the thread holding the mutex updates them, so primitives suffice.
+         */
+        private long safepointCount;
+        private long lastTimeToSafepointNanos;
+        private long totalTimeToSafepointNanos;
+        private long maxTimeToSafepointNanos;
+
         @Platforms(Platform.HOSTED_ONLY.class)
         private Master() {
             this.isFrozen = false;
@@ -486,10 +495,13 @@ public final class Safepoint {
             requestingThread = CurrentIsolate.getCurrentThread();
 
             Statistics.reset();
-            Statistics.setStartNanos();
+            long startNanos = System.nanoTime();
+            Statistics.setStartNanos(startNanos);
             requestSafepoints(reason);
             waitForSafepoints(reason);
-            Statistics.setFrozenNanos();
+            long timeToSafepointNanos = TimeUtils.nanoSecondsSince(startNanos);
+            recordTimeToSafepoint(timeToSafepointNanos);
+            Statistics.setFrozenNanos(timeToSafepointNanos);
 
             isFrozen = true;
         }
@@ -504,6 +516,35 @@ public final class Safepoint {
             getMutex().assertIsLocked("Should hold mutex when thawing from a safepoint.");
         }
 
+        private void recordTimeToSafepoint(long nanos) {
+            safepointCount++;
+            lastTimeToSafepointNanos = nanos;
+            totalTimeToSafepointNanos += nanos;
+            if (nanos > maxTimeToSafepointNanos) {
+                maxTimeToSafepointNanos = nanos;
+            }
+        }
+
+        /** The number of safepoints that have been established. */
+        public long getSafepointCount() {
+            return safepointCount;
+        }
+
+        /** The time it took to stop all threads for the most recent safepoint. */
+        public long getLastTimeToSafepointNanos() {
+            return lastTimeToSafepointNanos;
+        }
+
+        /** The accumulated time it took to stop all threads, over all safepoints. */
+        public long getTotalTimeToSafepointNanos() {
+            return totalTimeToSafepointNanos;
+        }
+
+        /** The longest time it took to stop all threads for any safepoint. */
+        public long getMaxTimeToSafepointNanos() {
+            return maxTimeToSafepointNanos;
+        }
+
         private static boolean isMyself(IsolateThread vmThread) {
             return vmThread == CurrentIsolate.getCurrentThread();
         }
@@ -780,9 +821,9 @@ public final class Safepoint {
             return startNanos;
         }
 
-        public static void setStartNanos() {
+        public static void setStartNanos(long nanos) {
             if (Options.GatherSafepointStatistics.getValue()) {
-                startNanos = System.nanoTime();
+                startNanos = nanos;
             }
         }
 
@@ -791,9 +832,9 @@ public final class Safepoint {
             return frozenNanos;
         }
 
-        public static void setFrozenNanos() {
+        public static void setFrozenNanos(long nanosSinceStart) {
             if (Options.GatherSafepointStatistics.getValue()) {
-                frozenNanos = TimeUtils.nanoSecondsSince(getStartNanos());
+                frozenNanos = nanosSinceStart;
             }
         }
 
@@ -37,6 +37,7 @@ import com.oracle.svm.core.SubstrateOptions;
 import com.oracle.svm.core.annotate.AutomaticFeature;
 import com.oracle.svm.core.annotate.Uninterruptible;
 import com.oracle.svm.core.locks.VMMutex;
+import com.oracle.svm.core.log.EventRecorder;
 import com.oracle.svm.core.log.Log;
 import com.oracle.svm.core.thread.Safepoint.SafepointRequestValues;
 import com.oracle.svm.core.threadlocal.FastThreadLocalFactory;
@@ -95,6 +96,13 @@ public final class VMOperationControl {
             log.string("  queuingThread: ").zhex(cur.getQueuingVMThread().rawValue()).newline();
             log.string("  executingThread: ").zhex(cur.getExecutingVMThread().rawValue()).newline();
         }
+        if (SubstrateOptions.MultiThreaded.getValue()) {
+            Safepoint.Master master = Safepoint.Master.singleton();
+            log.string("Safepoints: ").signed(master.getSafepointCount()).newline();
+            log.string("  time to safepoint (ns) last: ").signed(master.getLastTimeToSafepointNanos())
+                            .string("  max: ").signed(master.getMaxTimeToSafepointNanos())
+                            .string("  total: ").signed(master.getTotalTimeToSafepointNanos()).newline();
+        }
     }
 
     VMOperation getInProgress() {
@@ -186,8 +194,10 @@ public final class VMOperationControl {
          * system to a safepoint.
          */
         boolean startedSafepoint = false;
+        long safepointStartNanos = 0L;
         if (!master.isFrozen() && nonEmptySafepointQueues) {
             startedSafepoint = true;
+            safepointStartNanos = System.nanoTime();
             master.freeze(drainReason);
         }
         try {
@@ -196,6 +206,7 @@ public final class VMOperationControl {
         } finally {
             if (startedSafepoint) {
                 master.thaw(drainReason);
+                EventRecorder.record(EventRecorder.Kind.SAFEPOINT, safepointStartNanos, System.nanoTime() - safepointStartNanos, master.getLastTimeToSafepointNanos());
             }
         }
         trace.string("]").newline();
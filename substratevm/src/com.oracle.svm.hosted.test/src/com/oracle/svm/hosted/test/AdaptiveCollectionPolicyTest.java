@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.hosted.test;
+
+import static com.oracle.svm.core.genscavenge.CollectionPolicy.Adaptive.computeYoungGenerationSize;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Drives the young generation sizing of the Adaptive collection policy with synthetic pause and
+ * mutator times.
+ */
+public class AdaptiveCollectionPolicyTest {
+
+    private static final long MB = 1024L * 1024L;
+    private static final long CHUNK_SIZE = 1 * MB;
+    private static final long MAXIMUM_HEAP_SIZE = 3 * 256 * MB;
+    private static final long MS = 1_000_000L;
+    private static final int TIME_RATIO = 19;
+    private static final int ITERATIONS = 100;
+
+    @Test
+    public void testShrinksWhenPausesExceedGoal() {
+        long youngSize = computeYoungGenerationSize(64 * MB, 20 * MS, 20 * MS, 1000 * MS, 10 * MS, TIME_RATIO, CHUNK_SIZE, MAXIMUM_HEAP_SIZE);
+        Assert.assertEquals(56 * MB, youngSize);
+    }
+
+    @Test
+    public void testGrowsWhenCollectionTimeExceedsRatio() {
+        /* 10% of the time is spent collecting, but the goal is at most 1/(1+19) = 5%. */
+        long youngSize = computeYoungGenerationSize(64 * MB, 5 * MS, 100 * MS, 900 * MS, 10 * MS, TIME_RATIO, CHUNK_SIZE, MAXIMUM_HEAP_SIZE);
+        Assert.assertEquals(80 * MB, youngSize);
+    }
+
+    @Test
+    public void testKeepsSizeWhenGoalsAreMet() {
+        long youngSize = computeYoungGenerationSize(64 * MB, 5 * MS, 5 * MS, 1000 * MS, 10 * MS, TIME_RATIO, CHUNK_SIZE, MAXIMUM_HEAP_SIZE);
+        Assert.assertEquals(64 * MB, youngSize);
+    }
+
+    @Test
+    public void testPauseGoalTakesPrecedenceOverThroughput() {
+        long youngSize = computeYoungGenerationSize(64 * MB, 20 * MS, 500 * MS, 500 * MS, 10 * MS, TIME_RATIO, CHUNK_SIZE, MAXIMUM_HEAP_SIZE);
+        Assert.assertTrue(youngSize < 64 * MB);
+    }
+
+    @Test
+    public void testNoPauseGoal() {
+        long youngSize = computeYoungGenerationSize(64 * MB, 1000 * MS, 5 * MS, 1000 * MS, 0, TIME_RATIO, CHUNK_SIZE, MAXIMUM_HEAP_SIZE);
+        Assert.assertEquals(64 * MB, youngSize);
+    }
+
+    @Test
+    public void testStaysWithinBounds() {
+        Assert.assertEquals(2 * CHUNK_SIZE, computeYoungGenerationSize(2 * CHUNK_SIZE, 20 * MS, 20 * MS, 1000 * MS, 10 * MS, TIME_RATIO, CHUNK_SIZE, MAXIMUM_HEAP_SIZE));
+        Assert.assertEquals(MAXIMUM_HEAP_SIZE / 3, computeYoungGenerationSize(MAXIMUM_HEAP_SIZE / 3, 5 * MS, 500 * MS, 500 * MS, 10 * MS, TIME_RATIO, CHUNK_SIZE, MAXIMUM_HEAP_SIZE));
+        Assert.assertEquals(2 * CHUNK_SIZE, computeYoungGenerationSize(3 * MB + 1, 20 * MS, 20 * MS, 1000 * MS, 10 * MS, TIME_RATIO, CHUNK_SIZE, MAXIMUM_HEAP_SIZE));
+        Assert.assertEquals(7 * CHUNK_SIZE, computeYoungGenerationSize(5 * MB + 1, 5 * MS, 500 * MS, 500 * MS, 10 * MS, TIME_RATIO, CHUNK_SIZE, MAXIMUM_HEAP_SIZE));
+    }
+
+    /*
+     * A mutator that allocates at a constant rate and a collector whose pause grows with the size of
+     * the young generation: each scavenge takes 2ms per MB of young generation, and the mutator
+     * fills 1MB every 10ms. The pause goal of 10ms allows at most 5MB.
+     */
+    @Test
+    public void testConvergesBelowPauseGoal() {
+        long pauseGoalNanos = 10 * MS;
+        long youngSize = 64 * MB;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long pauseNanos = youngSize / MB * 2 * MS;
+            long mutatorNanos = youngSize / MB * 10 * MS;
+            youngSize = computeYoungGenerationSize(youngSize, pauseNanos, pauseNanos, mutatorNanos, pauseGoalNanos, TIME_RATIO, CHUNK_SIZE, MAXIMUM_HEAP_SIZE);
+        }
+        long pauseNanos = youngSize / MB * 2 * MS;
+        Assert.assertTrue("pause " + pauseNanos + " exceeds the goal", pauseNanos <= pauseGoalNanos);
+        Assert.assertTrue("young generation shrank too far: " + youngSize, youngSize >= 4 * MB);
+    }
+
+    /*
+     * A collector with a fixed pause of 5ms and a mutator that fills 1MB every 1ms. With 1/(1+19)
+     * of the time for collections, the young generation must be at least 95MB.
+     */
+    @Test
+    public void testConvergesToThroughputGoal() {
+        long youngSize = 8 * MB;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long pauseNanos = 5 * MS;
+            long mutatorNanos = youngSize / MB * MS;
+            youngSize = computeYoungGenerationSize(youngSize, pauseNanos, pauseNanos, mutatorNanos, 10 * MS, TIME_RATIO, CHUNK_SIZE, MAXIMUM_HEAP_SIZE);
+        }
+        long gcNanos = 5 * MS;
+        long totalNanos = gcNanos + youngSize / MB * MS;
+        Assert.assertTrue("collections take more than 1/20 of the time with " + youngSize, gcNanos * (1 + TIME_RATIO) <= totalNanos);
+        Assert.assertTrue("young generation grew too far: " + youngSize, youngSize <= MAXIMUM_HEAP_SIZE / 3);
+    }
+}
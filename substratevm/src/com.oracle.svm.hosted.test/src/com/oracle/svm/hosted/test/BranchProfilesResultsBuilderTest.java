@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.hosted.test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.graal.pointsto.results.StaticAnalysisResults;
+import com.oracle.graal.pointsto.results.StaticAnalysisResults.BytecodeEntry;
+import com.oracle.svm.hosted.code.BranchProfilesResultsBuilder;
+
+import jdk.vm.ci.meta.JavaTypeProfile;
+import jdk.vm.ci.meta.JavaTypeProfile.ProfiledType;
+import jdk.vm.ci.meta.TriState;
+
+public class BranchProfilesResultsBuilderTest {
+
+    private static final String METHOD = "java.lang.String.indexOf(int, int)";
+
+    /*
+     * The bytecode parser replaces a branch with an UnreachedCode guard when the probability of the
+     * branch or of its complement is exactly 0. A profiled never-taken or always-taken branch must
+     * therefore be loaded as a probability strictly between 0 and 1.
+     */
+    @Test
+    public void testNeverAndAlwaysTakenBranchesProduceNoUnreachedCodeGuard() throws IOException {
+        Map<Integer, Double> probabilities = load("# never and always taken", METHOD + " 21 0", METHOD + " 42 1.0").get(METHOD);
+        Assert.assertEquals(2, probabilities.size());
+        for (double probability : probabilities.values()) {
+            Assert.assertTrue("probability " + probability + " would produce an UnreachedCode guard", probability != 0 && 1 - probability != 0);
+        }
+        Assert.assertTrue(probabilities.get(21) < 0.001);
+        Assert.assertTrue(probabilities.get(42) > 0.999);
+    }
+
+    @Test
+    public void testProbabilitiesInRangeAreKept() throws IOException {
+        Map<Integer, Double> probabilities = load(METHOD + " 21 0.05").get(METHOD);
+        Assert.assertEquals(0.05, probabilities.get(21), 0);
+    }
+
+    /*
+     * A branch probability for a bci that already has a type profile must be merged into the
+     * existing entry instead of being dropped.
+     */
+    @Test
+    public void testBranchProbabilityIsMergedWithTypeProfile() {
+        JavaTypeProfile typeProfile = new JavaTypeProfile(TriState.TRUE, 0.0, new ProfiledType[0]);
+        BytecodeEntry entry = new BytecodeEntry(5, typeProfile, null, null).withBranchTakenProbability(0.25);
+        StaticAnalysisResults results = new StaticAnalysisResults(10, null, null, entry);
+        Assert.assertEquals(0.25, results.getBranchTakenProbability(5), 0);
+        Assert.assertSame(typeProfile, results.getTypeProfile(5));
+        Assert.assertEquals(TriState.TRUE, results.getNullSeen(5));
+        Assert.assertEquals(-1, results.getBranchTakenProbability(6), 0);
+    }
+
+    private static Map<String, Map<Integer, Double>> load(String... lines) throws IOException {
+        Path file = Files.createTempFile("branch-profiles", ".txt");
+        try {
+            Files.write(file, Arrays.asList(lines));
+            return BranchProfilesResultsBuilder.loadBranchProfiles(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.hosted.test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.svm.core.util.InterruptImageBuilding;
+import com.oracle.svm.hosted.UpToDateImageFeature;
+
+public class UpToDateImageFeatureTest {
+
+    private static final String FINGERPRINT = "0123456789abcdef";
+
+    private Path directory;
+    private Path image;
+    private Path fingerprintFile;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("up-to-date-image");
+        image = directory.resolve("image");
+        fingerprintFile = directory.resolve("image.fingerprint");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(fingerprintFile);
+        Files.deleteIfExists(image);
+        Files.delete(directory);
+    }
+
+    /*
+     * NativeImageGeneratorRunner prints the reason of an InterruptImageBuilding as information and
+     * exits with status 0, instead of reporting an error.
+     */
+    @Test
+    public void testUpToDateImageInterruptsBuild() throws IOException {
+        Files.write(image, new byte[]{1});
+        writeFingerprint(FINGERPRINT);
+        try {
+            UpToDateImageFeature.checkUpToDate(fingerprintFile, FINGERPRINT);
+            Assert.fail("build of an up-to-date image was not skipped");
+        } catch (InterruptImageBuilding e) {
+            Assert.assertTrue(e.getReason().isPresent());
+            Assert.assertTrue(e.getReason().get(), e.getReason().get().contains("is up to date"));
+        }
+        Assert.assertTrue(Files.exists(fingerprintFile));
+    }
+
+    @Test
+    public void testChangedFingerprintBuilds() throws IOException {
+        Files.write(image, new byte[]{1});
+        writeFingerprint("fedcba9876543210");
+        UpToDateImageFeature.checkUpToDate(fingerprintFile, FINGERPRINT);
+        Assert.assertFalse(Files.exists(fingerprintFile));
+    }
+
+    @Test
+    public void testMissingImageBuilds() throws IOException {
+        writeFingerprint(FINGERPRINT);
+        UpToDateImageFeature.checkUpToDate(fingerprintFile, FINGERPRINT);
+        Assert.assertFalse(Files.exists(fingerprintFile));
+    }
+
+    @Test
+    public void testFirstBuild() {
+        UpToDateImageFeature.checkUpToDate(fingerprintFile, FINGERPRINT);
+        Assert.assertFalse(Files.exists(fingerprintFile));
+    }
+
+    private void writeFingerprint(String fingerprint) throws IOException {
+        Files.write(fingerprintFile, Arrays.asList(fingerprint, image.toAbsolutePath().toString()), StandardCharsets.UTF_8);
+    }
+}
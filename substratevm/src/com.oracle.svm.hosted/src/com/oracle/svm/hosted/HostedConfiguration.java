@@ -24,6 +24,7 @@
  */
 package com.oracle.svm.hosted;
 
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.concurrent.ForkJoinPool;
@@ -44,6 +45,7 @@ import com.oracle.svm.hosted.classinitialization.ClassInitializationFeature;
 import com.oracle.svm.hosted.classinitialization.ClassInitializationSupport;
 import com.oracle.svm.hosted.classinitialization.ConservativeClassInitialization;
 import com.oracle.svm.hosted.classinitialization.EagerClassInitialization;
+import com.oracle.svm.hosted.code.BranchProfilesResultsBuilder;
 import com.oracle.svm.hosted.code.CompileQueue;
 import com.oracle.svm.hosted.code.SharedRuntimeConfigurationBuilder;
 import com.oracle.svm.hosted.config.HybridLayout;
@@ -110,6 +112,10 @@ public class HostedConfiguration {
     }
 
     public StaticAnalysisResultsBuilder createStaticAnalysisResultsBuilder(BigBang bigbang, HostedUniverse universe) {
+        String branchProfilesFile = NativeImageOptions.BranchProfilesFile.getValue();
+        if (!branchProfilesFile.isEmpty()) {
+            return new BranchProfilesResultsBuilder(bigbang, universe, BranchProfilesResultsBuilder.loadBranchProfiles(Paths.get(branchProfilesFile)));
+        }
         return new StaticAnalysisResultsBuilder(bigbang, universe);
     }
 
@@ -567,7 +567,7 @@ public class NativeImageGenerator {
                     throw UserError.abort("Warning: no entry points found, i.e., no method annotated with @" + CEntryPoint.class.getSimpleName());
                 }
 
-                heap = new NativeImageHeap(aUniverse, hUniverse, hMetaAccess);
+                heap = new NativeImageHeap(aUniverse, hUniverse, hMetaAccess, imageBuildPool);
 
                 BeforeCompilationAccessImpl config = new BeforeCompilationAccessImpl(featureHandler, loader, aUniverse, hUniverse, hMetaAccess, heap, debug, runtime);
                 featureHandler.forEachFeature(feature -> feature.beforeCompilation(config));
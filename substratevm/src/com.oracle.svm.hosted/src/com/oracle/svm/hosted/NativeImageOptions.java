@@ -106,6 +106,12 @@ public class NativeImageOptions {
     @Option(help = "Suppress console normal output for unittests")//
     public static final HostedOptionKey<Boolean> SuppressStdout = new HostedOptionKey<>(false);
 
+    @Option(help = "File with branch probabilities that guide the compilation of the image. Each line has the form '<method> <bci> <taken probability>', with the method formatted as %H.%n(%p).", type = User)//
+    public static final HostedOptionKey<String> BranchProfilesFile = new HostedOptionKey<>("");
+
+    @Option(help = "Skip the image build if the image was already built from the same class path contents, options and image builder.", type = User)//
+    public static final HostedOptionKey<Boolean> ReuseUpToDateImage = new HostedOptionKey<>(false);
+
     @Option(help = "Allow MethodTypeFlow to see @Fold methods")//
     public static final HostedOptionKey<Boolean> AllowFoldMethods = new HostedOptionKey<>(false);
 
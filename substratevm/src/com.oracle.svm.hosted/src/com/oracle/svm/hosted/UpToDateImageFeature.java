@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.hosted;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.graalvm.collections.UnmodifiableMapCursor;
+import org.graalvm.compiler.options.OptionKey;
+import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.nativeimage.Feature;
+
+import com.oracle.svm.core.SubstrateOptions;
+import com.oracle.svm.core.annotate.AutomaticFeature;
+import com.oracle.svm.core.option.HostedOptionValues;
+import com.oracle.svm.core.option.OptionUtils;
+import com.oracle.svm.core.option.RuntimeOptionValues;
+import com.oracle.svm.core.util.InterruptImageBuilding;
+import com.oracle.svm.core.util.VMError;
+import com.oracle.svm.hosted.FeatureImpl.AfterImageWriteAccessImpl;
+import com.oracle.svm.hosted.FeatureImpl.AfterRegistrationAccessImpl;
+
+/**
+ * Skips the build of an image whose inputs did not change since it was last built, see
+ * {@link NativeImageOptions#ReuseUpToDateImage}. The inputs are summarized in a fingerprint: a
+ * digest of the contents of the image class and module path, of the hosted and runtime option
+ * values, of the files named by {@linkplain #PATH_OPTIONS path-valued options}, and of the class
+ * and module path of the image builder itself. After a successful build, the fingerprint and the
+ * path of the image are stored in a file next to the image. A later build with the same fingerprint
+ * stops right after feature registration if the image still exists. It does so by throwing
+ * {@link InterruptImageBuilding}, so the image builder prints the reason and exits with status 0.
+ *
+ * The fingerprint is computed for every build, including builds that then go ahead, so files that
+ * only change when the JDK or the image builder is updated are summarized by their size and
+ * modification time instead of their contents.
+ */
+@AutomaticFeature
+public final class UpToDateImageFeature implements Feature {
+
+    /**
+     * Options whose values are comma-separated file or directory names. The contents of these files
+     * are inputs of the image, not just their names. Some of the options are declared in projects
+     * that this one does not depend on, so they are referenced by name.
+     */
+    private static final Set<String> PATH_OPTIONS = new HashSet<>(Arrays.asList(
+                    "ReflectionConfigurationFiles",
+                    "JNIConfigurationFiles",
+                    "ResourceConfigurationFiles",
+                    "DynamicProxyConfigurationFiles",
+                    "BranchProfilesFile",
+                    "CLibraryPath"));
+
+    private Path fingerprintFile;
+    private String fingerprint;
+
+    @Override
+    public boolean isInConfiguration(IsInConfigurationAccess access) {
+        return NativeImageOptions.ReuseUpToDateImage.getValue();
+    }
+
+    @Override
+    public void afterRegistration(AfterRegistrationAccess a) {
+        AfterRegistrationAccessImpl access = (AfterRegistrationAccessImpl) a;
+        String imageName = NativeImageOptions.Name.getValue();
+        fingerprintFile = NativeImageGenerator.generatedFiles(HostedOptionValues.singleton()).resolve(imageName + ".fingerprint");
+        fingerprint = computeFingerprint(access.getImageClassLoader().getClasspath().stream().flatMap(ImageClassLoader::toClassPathEntries).collect(Collectors.toList()));
+        checkUpToDate(fingerprintFile, fingerprint);
+    }
+
+    /**
+     * Throws {@link InterruptImageBuilding} if the fingerprint file records the given fingerprint
+     * for an image that still exists. Otherwise, deletes the fingerprint file, since the image is
+     * about to be overwritten.
+     */
+    public static void checkUpToDate(Path fingerprintFile, String fingerprint) {
+        try {
+            if (Files.isRegularFile(fingerprintFile)) {
+                List<String> stored = Files.readAllLines(fingerprintFile, StandardCharsets.UTF_8);
+                if (stored.size() == 2 && stored.get(0).equals(fingerprint) && Files.isRegularFile(Paths.get(stored.get(1)))) {
+                    throw new InterruptImageBuilding("Image " + stored.get(1) + " is up to date, skipping the image build.");
+                }
+                Files.delete(fingerprintFile);
+            }
+        } catch (IOException ex) {
+            throw VMError.shouldNotReachHere(ex);
+        }
+    }
+
+    @Override
+    public void afterImageWrite(AfterImageWriteAccess a) {
+        AfterImageWriteAccessImpl access = (AfterImageWriteAccessImpl) a;
+        try {
+            Files.write(fingerprintFile, Arrays.asList(fingerprint, access.getImagePath().toAbsolutePath().toString()), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw VMError.shouldNotReachHere(ex);
+        }
+    }
+
+    private static String computeFingerprint(List<Path> imageClasspath) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw VMError.shouldNotReachHere(ex);
+        }
+
+        update(digest, System.getProperty("java.home"));
+        update(digest, System.getProperty("java.vm.version"));
+        for (String property : new String[]{"java.class.path", "jdk.module.path", "jdk.module.upgrade.path"}) {
+            String path = System.getProperty(property);
+            if (path != null && !path.isEmpty()) {
+                for (String entry : path.split(File.pathSeparator)) {
+                    update(digest, Paths.get(entry), false);
+                }
+            }
+        }
+        for (Path entry : imageClasspath) {
+            update(digest, entry, true);
+        }
+        update(digest, HostedOptionValues.singleton());
+        update(digest, RuntimeOptionValues.singleton());
+        /*
+         * The default library path is not in the option map, but its libraries are linked too. They
+         * are part of the image builder.
+         */
+        for (String entry : OptionUtils.flatten(",", SubstrateOptions.CLibraryPath.getValue())) {
+            update(digest, Paths.get(entry), false);
+        }
+
+        StringBuilder result = new StringBuilder();
+        for (byte b : digest.digest()) {
+            result.append(String.format("%02x", b & 0xff));
+        }
+        return result.toString();
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    /**
+     * Adds the names of a file, or of all files in a directory, in a stable order. Adds either the
+     * contents of the files, or only their sizes and modification times.
+     */
+    private static void update(MessageDigest digest, Path classpathEntry, boolean contents) {
+        update(digest, classpathEntry.toAbsolutePath().toString());
+        if (!Files.exists(classpathEntry)) {
+            return;
+        }
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(classpathEntry)) {
+            files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        } catch (IOException ex) {
+            throw VMError.shouldNotReachHere(ex);
+        }
+        for (Path file : files) {
+            update(digest, classpathEntry.relativize(file).toString());
+            try {
+                if (contents) {
+                    digest.update(Files.readAllBytes(file));
+                } else {
+                    update(digest, Files.size(file) + " " + Files.getLastModifiedTime(file).toMillis());
+                }
+            } catch (IOException ex) {
+                throw VMError.shouldNotReachHere(ex);
+            }
+        }
+    }
+
+    private static void update(MessageDigest digest, OptionValues options) {
+        /* Sort by name, since the iteration order of the option map depends on parsing order. */
+        TreeMap<String, String> values = new TreeMap<>();
+        UnmodifiableMapCursor<OptionKey<?>, Object> cursor = options.getMap().getEntries();
+        while (cursor.advance()) {
+            Object value = cursor.getValue();
+            values.put(cursor.getKey().getName(), value instanceof Object[] ? Arrays.deepToString((Object[]) value) : String.valueOf(value));
+        }
+        List<String> entries = new ArrayList<>();
+        values.forEach((name, value) -> entries.add(name + "=" + value));
+        for (String entry : entries) {
+            update(digest, entry);
+        }
+
+        /* Also hash the contents of the files named by path-valued options, in the same order. */
+        TreeMap<String, List<String>> paths = new TreeMap<>();
+        cursor = options.getMap().getEntries();
+        while (cursor.advance()) {
+            String name = cursor.getKey().getName();
+            Object value = cursor.getValue();
+            if (PATH_OPTIONS.contains(name)) {
+                paths.put(name, OptionUtils.flatten(",", value instanceof String[] ? (String[]) value : new String[]{String.valueOf(value)}));
+            }
+        }
+        paths.forEach((name, files) -> {
+            update(digest, name);
+            for (String file : files) {
+                update(digest, Paths.get(file), true);
+            }
+        });
+    }
+}
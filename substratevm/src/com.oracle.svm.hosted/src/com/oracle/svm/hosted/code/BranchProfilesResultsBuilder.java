@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.hosted.code;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.oracle.graal.pointsto.BigBang;
+import com.oracle.graal.pointsto.infrastructure.Universe;
+import com.oracle.graal.pointsto.meta.AnalysisMethod;
+import com.oracle.graal.pointsto.results.StaticAnalysisResultsBuilder;
+import com.oracle.svm.core.util.UserError;
+import com.oracle.svm.hosted.NativeImageOptions;
+
+/**
+ * Adds branch probabilities from a profile file to the static analysis results, so that the
+ * bytecode parser uses them when the methods of the image are parsed for compilation. This affects
+ * block layout, inlining and the other optimizations that depend on branch probabilities.
+ * <p>
+ * The file is given with {@link NativeImageOptions#BranchProfilesFile}. Empty lines and lines
+ * starting with {@code #} are ignored. All other lines have the form
+ * {@code <method> <bci> <taken probability>}, where the method is formatted as {@code %H.%n(%p)},
+ * e.g., {@code java.lang.String.indexOf(int, int) 21 0.05}. The probability refers to the branch
+ * bytecode at the bci, as it appears in the class file. Profiles of methods that are not part of the
+ * image are ignored.
+ * <p>
+ * Probabilities are clamped to [{@link #MIN_PROBABILITY}, 1 - {@link #MIN_PROBABILITY}]. A
+ * probability of exactly 0 or 1 would make the bytecode parser replace the branch that was never
+ * taken in the profiling run with an {@code UnreachedCode} guard, which is fatal in an image when
+ * the branch is taken after all.
+ */
+public class BranchProfilesResultsBuilder extends StaticAnalysisResultsBuilder {
+
+    static final double MIN_PROBABILITY = 1e-6;
+
+    private final Map<String, Map<Integer, Double>> branchProfiles;
+
+    public BranchProfilesResultsBuilder(BigBang bb, Universe converter, Map<String, Map<Integer, Double>> branchProfiles) {
+        super(bb, converter);
+        this.branchProfiles = branchProfiles;
+    }
+
+    @Override
+    protected Map<Integer, Double> getBranchTakenProbabilities(AnalysisMethod method) {
+        return branchProfiles.get(method.format("%H.%n(%p)"));
+    }
+
+    public static Map<String, Map<Integer, Double>> loadBranchProfiles(Path file) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file);
+        } catch (IOException ex) {
+            throw UserError.abort("Cannot read branch profiles file " + file + ": " + ex.getMessage());
+        }
+
+        Map<String, Map<Integer, Double>> result = new HashMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            /* The method contains spaces between its parameter types, so parse from the end. */
+            int probabilityStart = line.lastIndexOf(' ');
+            int bciStart = probabilityStart <= 0 ? -1 : line.lastIndexOf(' ', probabilityStart - 1);
+            if (bciStart <= 0) {
+                throw malformedLine(file, i, line);
+            }
+            int bci;
+            double probability;
+            try {
+                bci = Integer.parseInt(line.substring(bciStart + 1, probabilityStart));
+                probability = Double.parseDouble(line.substring(probabilityStart + 1));
+            } catch (NumberFormatException ex) {
+                throw malformedLine(file, i, line);
+            }
+            if (bci < 0 || !(probability >= 0 && probability <= 1)) {
+                throw malformedLine(file, i, line);
+            }
+            String method = line.substring(0, bciStart).trim();
+            double clampedProbability = Math.min(Math.max(probability, MIN_PROBABILITY), 1 - MIN_PROBABILITY);
+            result.computeIfAbsent(method, m -> new HashMap<>()).put(bci, clampedProbability);
+        }
+        return result;
+    }
+
+    private static UserError.UserException malformedLine(Path file, int index, String line) {
+        return UserError.abort("Malformed line " + (index + 1) + " in branch profiles file " + file + ": " + line);
+    }
+}
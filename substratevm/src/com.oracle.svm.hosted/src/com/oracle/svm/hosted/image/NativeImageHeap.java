@@ -40,6 +40,7 @@ import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import org.graalvm.compiler.api.replacements.Fold;
 import org.graalvm.compiler.core.common.CompressEncoding;
@@ -285,10 +286,20 @@ public final class NativeImageHeap {
     @SuppressWarnings("try")
     public void writeHeap(DebugContext debug, final RelocatableBuffer roBuffer, final RelocatableBuffer rwBuffer) {
         try (Indent perHeapIndent = debug.logAndIndent("BootImageHeap.writeHeap:")) {
-            for (ObjectInfo info : objects.values()) {
+            /*
+             * Every object is written to its own, already assigned range of the buffers, so objects
+             * can be written in parallel on the image builder's pool: all buffer writes are
+             * absolute puts into non-overlapping ranges, and the only shared state, the relocation
+             * maps (RelocatableBuffer.putInfo) and the first relocatable pointer offset
+             * (recordRelocatablePointerOffset), is updated under a lock. The relocation maps are
+             * sorted by offset, so the result does not depend on the order in which objects are
+             * written.
+             */
+            executor.submit(() -> objects.values().parallelStream().forEach(info -> {
                 assert !blacklist.contains(info.getObject());
                 writeObject(info, roBuffer, rwBuffer);
-            }
+            })).join();
+            assert serialWriteMatches(roBuffer, rwBuffer) : "parallel and serial writes of the image heap differ";
             // Only static fields that are writable get written to the native image heap,
             // the read-only static fields have been inlined into the code.
             writeStaticFields(rwBuffer);
@@ -314,6 +325,23 @@ public final class NativeImageHeap {
         }
     }
 
+    /**
+     * Writes all objects again, one after the other, and checks that the buffers and their
+     * relocations do not change, i.e., that the parallel write produced the same result as a serial
+     * write would have.
+     */
+    private boolean serialWriteMatches(RelocatableBuffer roBuffer, RelocatableBuffer rwBuffer) {
+        byte[] roBytes = roBuffer.getBytes().clone();
+        byte[] rwBytes = rwBuffer.getBytes().clone();
+        int roRelocations = roBuffer.mapSize();
+        int rwRelocations = rwBuffer.mapSize();
+        for (ObjectInfo info : objects.values()) {
+            writeObject(info, roBuffer, rwBuffer);
+        }
+        return Arrays.equals(roBytes, roBuffer.getBytes()) && Arrays.equals(rwBytes, rwBuffer.getBytes()) &&
+                        roRelocations == roBuffer.mapSize() && rwRelocations == rwBuffer.mapSize();
+    }
+
     public ObjectInfo getObjectInfo(Object obj) {
         return objects.get(obj);
     }
@@ -644,15 +672,21 @@ public final class NativeImageHeap {
     private void addDirectRelocationWithoutAddend(RelocatableBuffer buffer, int index, int size, Object target) {
         assert !spawnIsolates() || index >= readOnlyRelocatable.offsetInSection() && index < readOnlyRelocatable.offsetInSection(readOnlyRelocatable.getSize());
         buffer.addDirectRelocationWithoutAddend(index, size, target);
-        if (firstRelocatablePointerOffsetInSection == -1) {
-            firstRelocatablePointerOffsetInSection = index;
-        }
+        recordRelocatablePointerOffset(index);
     }
 
     private void addDirectRelocationWithAddend(RelocatableBuffer buffer, int index, DynamicHub target, long objectHeaderBits) {
         assert !spawnIsolates() || index >= readOnlyRelocatable.offsetInSection() && index < readOnlyRelocatable.offsetInSection(readOnlyRelocatable.getSize());
         buffer.addDirectRelocationWithAddend(index, referenceSize(), objectHeaderBits, target);
-        if (firstRelocatablePointerOffsetInSection == -1) {
+        recordRelocatablePointerOffset(index);
+    }
+
+    /**
+     * Tracks the lowest offset of a relocatable pointer. Objects are written in parallel, so taking
+     * the minimum rather than the first recorded offset keeps the image reproducible.
+     */
+    private synchronized void recordRelocatablePointerOffset(int index) {
+        if (firstRelocatablePointerOffsetInSection == -1 || index < firstRelocatablePointerOffsetInSection) {
             firstRelocatablePointerOffsetInSection = index;
         }
     }
@@ -894,10 +928,11 @@ public final class NativeImageHeap {
         return metaAccess;
     }
 
-    public NativeImageHeap(AnalysisUniverse aUniverse, HostedUniverse universe, HostedMetaAccess metaAccess) {
+    public NativeImageHeap(AnalysisUniverse aUniverse, HostedUniverse universe, HostedMetaAccess metaAccess, ForkJoinPool executor) {
         this.aUniverse = aUniverse;
         this.universe = universe;
         this.metaAccess = metaAccess;
+        this.executor = executor;
         this.layout = ConfigurationValues.getObjectLayout();
 
         readOnlyPrimitive = HeapPartition.factory("readOnlyPrimitive", this, false);
@@ -921,6 +956,8 @@ public final class NativeImageHeap {
     private final HostedUniverse universe;
     private final AnalysisUniverse aUniverse;
     private final HostedMetaAccess metaAccess;
+    /** The image builder's pool, on which the heap is written. */
+    private final ForkJoinPool executor;
     private final ObjectLayout layout;
 
     /**
@@ -90,8 +90,11 @@ public final class RelocatableBuffer {
         return getMap().entrySet();
     }
 
-    /** Raw map access. */
-    private RelocatableBuffer.Info putInfo(final int key, final RelocatableBuffer.Info value) {
+    /**
+     * Raw map access. Synchronized because the image heap is written to the buffer from multiple
+     * threads. The map is sorted by offset, so its contents do not depend on the insertion order.
+     */
+    private synchronized RelocatableBuffer.Info putInfo(final int key, final RelocatableBuffer.Info value) {
         return getMap().put(key, value);
     }
 
@@ -24,10 +24,9 @@
  */
 package com.oracle.svm.jni;
 
-import java.util.function.Predicate;
-
 import org.graalvm.nativeimage.PinnedObject;
 import org.graalvm.word.PointerBase;
+import org.graalvm.word.WordFactory;
 
 import com.oracle.svm.core.threadlocal.FastThreadLocalFactory;
 import com.oracle.svm.core.threadlocal.FastThreadLocalObject;
@@ -54,11 +53,17 @@ public class JNIThreadLocalPinnedObjects {
         return pin.addressOfArrayElement(0);
     }
 
-    private static boolean unpinFirst(Predicate<PinnedObjectListNode> p) {
+    /**
+     * Unpins the most recently pinned entry that matches either the object or, if the object is
+     * null, the array address. Critical regions are usually released in reverse order, so the
+     * match is typically the list head. Not using a predicate lambda avoids an allocation per call
+     * in native code that pins and releases arrays in a tight loop.
+     */
+    private static boolean unpinFirst(Object object, PointerBase address) {
         PinnedObjectListNode previous = null;
         PinnedObjectListNode current = pinnedObjectsListHead.get();
         while (current != null) {
-            if (p.test(current)) {
+            if (object != null ? current.object.getObject() == object : isArrayAt(current, address)) {
                 if (previous != null) {
                     previous.next = current.next;
                 } else {
@@ -73,12 +78,17 @@ public class JNIThreadLocalPinnedObjects {
         return false;
     }
 
+    private static boolean isArrayAt(PinnedObjectListNode node, PointerBase address) {
+        return node.object.getObject().getClass().isArray() && node.object.addressOfArrayElement(0) == address;
+    }
+
     public static boolean unpinObject(Object object) {
-        return unpinFirst(n -> n.object.getObject() == object);
+        assert object != null;
+        return unpinFirst(object, WordFactory.nullPointer());
     }
 
     public static boolean unpinArrayByAddress(PointerBase address) {
-        return unpinFirst(n -> n.object.getObject().getClass().isArray() && n.object.addressOfArrayElement(0) == address);
+        return unpinFirst(null, address);
     }
 
     static int pinnedObjectCount() {
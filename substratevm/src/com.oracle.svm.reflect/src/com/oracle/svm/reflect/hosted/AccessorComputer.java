@@ -40,6 +40,15 @@ import jdk.vm.ci.meta.MetaAccessProvider;
 import jdk.vm.ci.meta.ResolvedJavaField;
 import sun.misc.Unsafe;
 
+/**
+ * Computes the accessor fields of {@link java.lang.reflect.Method}, {@link java.lang.reflect.Field}
+ * and {@link java.lang.reflect.Constructor} objects in the image heap.
+ *
+ * The accessor of an image heap object never changes at run time because the substitutions of the
+ * acquire methods never install a new one. The fields are therefore recomputed as final, which
+ * lets calls through a constant reflection object fold to the accessor and then devirtualize and
+ * inline the generated accessor.
+ */
 public final class AccessorComputer implements RecomputeFieldValue.CustomFieldValueComputer {
 
     private static final Unsafe UNSAFE = GraalUnsafeAccess.getUnsafe();
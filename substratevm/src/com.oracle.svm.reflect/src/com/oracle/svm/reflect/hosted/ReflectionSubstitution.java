@@ -31,7 +31,8 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
-import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.graalvm.compiler.serviceprovider.JavaVersionUtil;
 
@@ -60,8 +61,8 @@ final class ReflectionSubstitution extends CustomSubstitution<ReflectionSubstitu
     private final ResolvedJavaType reflectionProxy;
     private final ResolvedJavaType javaLangReflectProxy;
 
-    private final HashMap<Member, Class<?>> proxyMap = new HashMap<>();
-    private final HashMap<ResolvedJavaType, Member> typeToMember = new HashMap<>();
+    private final Map<Member, Class<?>> proxyMap = new ConcurrentHashMap<>();
+    private final Map<ResolvedJavaType, Member> typeToMember = new ConcurrentHashMap<>();
 
     private static final AtomicInteger proxyNr = new AtomicInteger(0);
 
@@ -131,7 +132,11 @@ final class ReflectionSubstitution extends CustomSubstitution<ReflectionSubstitu
         /* } Allow reflection in hosted code. Checkstyle: resume. */
     }
 
-    Class<?> getProxyClass(Member member) {
+    /**
+     * Synchronized because accessor fields are constant folded during the parallel static analysis,
+     * which can request proxies concurrently. Each proxy class must be defined only once.
+     */
+    synchronized Class<?> getProxyClass(Member member) {
         Class<?> ret = proxyMap.get(member);
         if (ret == null) {
             /* the unique ID is added for unit tests that don't change the class loader */
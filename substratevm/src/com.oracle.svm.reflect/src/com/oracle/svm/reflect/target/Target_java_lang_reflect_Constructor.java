@@ -48,8 +48,9 @@ public final class Target_java_lang_reflect_Constructor {
 
     @Alias ConstructorRepository genericInfo;
 
+    /* Recomputed as final, see AccessorComputer. */
     @Alias //
-    @RecomputeFieldValue(kind = Kind.Custom, declClass = AccessorComputer.class) //
+    @RecomputeFieldValue(kind = Kind.Custom, declClass = AccessorComputer.class, isFinal = true) //
     Target_jdk_internal_reflect_ConstructorAccessor constructorAccessor;
 
     @Inject @RecomputeFieldValue(kind = Kind.Custom, declClass = ConstructorAnnotatedReceiverTypeComputer.class) //
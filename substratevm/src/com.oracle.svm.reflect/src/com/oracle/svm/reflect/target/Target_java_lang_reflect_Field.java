@@ -47,11 +47,12 @@ public final class Target_java_lang_reflect_Field {
 
     @Alias FieldRepository genericInfo;
 
+    /* Recomputed as final, see AccessorComputer. */
     @Alias //
-    @RecomputeFieldValue(kind = Kind.Custom, declClass = AccessorComputer.class) //
+    @RecomputeFieldValue(kind = Kind.Custom, declClass = AccessorComputer.class, isFinal = true) //
     Target_jdk_internal_reflect_FieldAccessor fieldAccessor;
     @Alias //
-    @RecomputeFieldValue(kind = Kind.Custom, declClass = AccessorComputer.class) //
+    @RecomputeFieldValue(kind = Kind.Custom, declClass = AccessorComputer.class, isFinal = true) //
     Target_jdk_internal_reflect_FieldAccessor overrideFieldAccessor;
 
     /**
@@ -43,8 +43,9 @@ public final class Target_java_lang_reflect_Method {
 
     @Alias MethodRepository genericInfo;
 
+    /* Recomputed as final, see AccessorComputer. */
     @Alias //
-    @RecomputeFieldValue(kind = Kind.Custom, declClass = AccessorComputer.class) //
+    @RecomputeFieldValue(kind = Kind.Custom, declClass = AccessorComputer.class, isFinal = true) //
     Target_jdk_internal_reflect_MethodAccessor methodAccessor;
 
     @Alias
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.test;
+
+import org.graalvm.nativeimage.IsolateThread;
+import org.graalvm.nativeimage.Isolates;
+import org.graalvm.nativeimage.Isolates.CreateIsolateParameters;
+import org.graalvm.nativeimage.c.function.CEntryPoint;
+import org.graalvm.nativeimage.c.function.CEntryPointLiteral;
+import org.graalvm.nativeimage.c.function.CFunctionPointer;
+import org.graalvm.nativeimage.c.function.InvokeCFunctionPointer;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that an isolate never sees the image heap modifications of an isolate that was torn down
+ * before it was created, which matters when the image heap mapping of a torn-down isolate is
+ * reused (see {@code LinuxImageHeapProvider.Options.ReuseIsolateImageHeap}).
+ */
+public class IsolateImageHeapReuseTest {
+    private static final int INITIAL_VALUE = 42;
+    private static final int ISOLATES = 4;
+
+    private static int value = INITIAL_VALUE;
+    private static final int[] VALUES = {INITIAL_VALUE, INITIAL_VALUE};
+
+    interface ModifyImageHeapFunctionPointer extends CFunctionPointer {
+        @InvokeCFunctionPointer
+        int invoke(IsolateThread thread, int newValue);
+    }
+
+    private static final CEntryPointLiteral<ModifyImageHeapFunctionPointer> modifyImageHeapFunction = CEntryPointLiteral.create(IsolateImageHeapReuseTest.class, "modifyImageHeap",
+                    IsolateThread.class, int.class);
+
+    /**
+     * Overwrites a static field and an array in the image heap of the isolate of {@code thread}.
+     * Returns the previous value, or -1 if the field and the array did not match.
+     */
+    @CEntryPoint
+    static int modifyImageHeap(@SuppressWarnings("unused") IsolateThread thread, int newValue) {
+        int previous = value;
+        if (VALUES[0] != previous || VALUES[1] != previous) {
+            return -1;
+        }
+        value = newValue;
+        VALUES[0] = newValue;
+        VALUES[1] = newValue;
+        return previous;
+    }
+
+    @Test
+    public void testRecreatedIsolateHasPristineImageHeap() {
+        for (int i = 0; i < ISOLATES; i++) {
+            int newValue = INITIAL_VALUE + 1 + i;
+            IsolateThread thread = Isolates.createIsolate(CreateIsolateParameters.getDefault());
+            try {
+                Assert.assertEquals("image heap of isolate " + i, INITIAL_VALUE, modifyImageHeapFunction.getFunctionPointer().invoke(thread, newValue));
+                Assert.assertEquals("modification in isolate " + i, newValue, modifyImageHeapFunction.getFunctionPointer().invoke(thread, newValue));
+            } finally {
+                Isolates.tearDownIsolate(thread);
+            }
+        }
+        Assert.assertEquals(INITIAL_VALUE, value);
+        Assert.assertArrayEquals(new int[]{INITIAL_VALUE, INITIAL_VALUE}, VALUES);
+    }
+}